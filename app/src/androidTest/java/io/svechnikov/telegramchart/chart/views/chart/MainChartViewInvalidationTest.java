@@ -0,0 +1,138 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.support.test.InstrumentationRegistry;
+import android.support.test.runner.AndroidJUnit4;
+import android.view.View;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+import io.svechnikov.telegramchart.chart.data.Axis;
+import io.svechnikov.telegramchart.chart.data.ChartData;
+import io.svechnikov.telegramchart.chart.data.DateLabels;
+import io.svechnikov.telegramchart.chart.data.Entity;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+import io.svechnikov.telegramchart.chart.views.LabelAtlas;
+
+import static org.junit.Assert.*;
+
+@RunWith(AndroidJUnit4.class)
+public class MainChartViewInvalidationTest {
+
+    private static final int POINTS_COUNT = 200;
+    private static final int WIDTH = 1080;
+    private static final int HEIGHT = 720;
+
+    private static final int[] TYPES = {
+            ChartData.TYPE_LINE,
+            ChartData.TYPE_Y_SCALED,
+            ChartData.TYPE_STACKED,
+            ChartData.TYPE_BAR,
+            ChartData.TYPE_PERCENTAGE
+    };
+
+    private MainChartView view;
+
+    @Test
+    public void boundsChange_invalidatesEveryLayerOnce() {
+        for (final int type: TYPES) {
+            onMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    view = createView(type);
+                    view.onNavigationBoundsChanged(0, 50);
+                    drawFrame(view);
+                    view.getInvalidationScheduler().resetCounters();
+
+                    // a few touch events within one frame
+                    view.onNavigationBoundsChanged(10, 60);
+                    view.onNavigationBoundsChanged(11, 61);
+                    view.onNavigationBoundsChanged(12, 62);
+                }
+            });
+
+            InvalidationScheduler scheduler = view.getInvalidationScheduler();
+            String chart = "type " + type;
+
+            for (int layer = 0; layer < InvalidationScheduler.LAYERS_COUNT; layer++) {
+                assertTrue(chart + " layer " + layer,
+                        scheduler.getInvalidationsCount(layer) <= 1);
+            }
+            assertEquals(chart, 1, scheduler.getInvalidationsCount(
+                    InvalidationScheduler.LAYER_PLOT));
+            assertEquals(chart, 1, scheduler.getInvalidationsCount(
+                    InvalidationScheduler.LAYER_HORIZONTAL_AXIS));
+            assertTrue(chart, scheduler.getRedundantRequestsCount() > 0);
+            assertTrue(chart, (scheduler.getDirtyReasons(InvalidationScheduler.LAYER_PLOT) &
+                    InvalidationScheduler.REASON_BOUNDS) != 0);
+
+            onMainThread(new Runnable() {
+                @Override
+                public void run() {
+                    drawFrame(view);
+                }
+            });
+
+            assertEquals(chart, 0, scheduler.getDirtyReasons(
+                    InvalidationScheduler.LAYER_PLOT));
+            assertEquals(chart, 0, scheduler.getDirtyReasons(
+                    InvalidationScheduler.LAYER_HORIZONTAL_AXIS));
+        }
+    }
+
+    private static MainChartView createView(int type) {
+        Context context = InstrumentationRegistry.getTargetContext();
+
+        MainChartView view = new MainChartView(context);
+        view.setAnimationClock(new AnimationClock(context));
+        view.setVerticalItemsCount(6);
+        view.setHorizontalItemsCount(6);
+        view.setLabelAtlas(new LabelAtlas(context));
+        view.setChartData(createChartData(type));
+        return view;
+    }
+
+    private static ChartData createChartData(int type) {
+        long[] timestamps = new long[POINTS_COUNT];
+        for (int i = 0; i < POINTS_COUNT; i++) {
+            timestamps[i] = 1542412800000L + i * 86400000L;
+        }
+        Axis axis = new Axis(timestamps, new DateLabels(Locale.US));
+
+        List<Entity> entities = new ArrayList<>();
+        int[] colors = {Color.RED, Color.BLUE};
+        for (int i = 0; i < colors.length; i++) {
+            int[] values = new int[POINTS_COUNT];
+            for (int j = 0; j < POINTS_COUNT; j++) {
+                // growing values, so moving the bounds changes the y range
+                values[j] = (j + 1) * (i + 1) * 10;
+            }
+            entities.add(new Entity(i, colors[i], "y" + i, values));
+        }
+        return new ChartData("chart", entities, axis, type, null);
+    }
+
+    private static void drawFrame(View view) {
+        view.measure(
+                View.MeasureSpec.makeMeasureSpec(WIDTH, View.MeasureSpec.EXACTLY),
+                View.MeasureSpec.makeMeasureSpec(HEIGHT, View.MeasureSpec.EXACTLY));
+        view.layout(0, 0, WIDTH, HEIGHT);
+
+        Bitmap bitmap = Bitmap.createBitmap(WIDTH, HEIGHT, Bitmap.Config.ARGB_8888);
+        view.draw(new Canvas(bitmap));
+        bitmap.recycle();
+    }
+
+    private static void onMainThread(Runnable action) {
+        InstrumentationRegistry.getInstrumentation().runOnMainSync(action);
+    }
+}
@@ -1,8 +1,6 @@
 package io.svechnikov.telegramchart;
 
-import android.content.Context;
 import android.content.Intent;
-import android.os.AsyncTask;
 import android.os.Build;
 import android.os.Bundle;
 import android.os.Handler;
@@ -12,12 +10,9 @@ import android.view.ViewTreeObserver;
 import android.widget.LinearLayout;
 import android.widget.ProgressBar;
 
-import java.lang.ref.WeakReference;
-import java.util.ArrayList;
-import java.util.List;
-
 import androidx.core.content.ContextCompat;
 import androidx.fragment.app.FragmentActivity;
+import io.svechnikov.telegramchart.chart.ChartsLoadListener;
 import io.svechnikov.telegramchart.chart.ChartsRepo;
 import io.svechnikov.telegramchart.chart.ServiceLocator;
 import io.svechnikov.telegramchart.chart.SettingsRepo;
@@ -25,16 +20,20 @@ import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.ChartViewState;
 import io.svechnikov.telegramchart.chart.data.ChartsViewState;
 import io.svechnikov.telegramchart.chart.views.ChartView;
+import io.svechnikov.telegramchart.chart.views.LabelAtlas;
 
-public class MainActivity extends FragmentActivity {
+public class MainActivity extends FragmentActivity
+        implements ChartsLoadListener {
 
     private ViewGroup container;
     private ViewGroup scrollView;
 
-    private final List<ChartView> chartViews = new ArrayList<>();
+    private final ChartView[] chartViews = new ChartView[ChartsRepo.CHARTS_COUNT];
     private final Handler handler = new Handler();
 
     private ProgressBar progressBar;
+    // shared by the axes of all the charts
+    private LabelAtlas labelAtlas;
     private boolean chartsLoaded;
 
     private ChartsViewState savedChartsViewState;
@@ -98,6 +97,8 @@ public class MainActivity extends FragmentActivity {
 
         progressBar = findViewById(R.id.progressBar);
 
+        labelAtlas = new LabelAtlas(this);
+
         container = findViewById(R.id.container);
 
         // todo use RecyclerView
@@ -147,6 +148,13 @@ public class MainActivity extends FragmentActivity {
         handler.removeCallbacks(showLoading);
     }
 
+    @Override
+    protected void onDestroy() {
+        super.onDestroy();
+
+        chartsRepo().removeLoadListener(this);
+    }
+
     @Override
     protected void onSaveInstanceState(Bundle outState) {
         super.onSaveInstanceState(outState);
@@ -166,99 +174,110 @@ public class MainActivity extends FragmentActivity {
     private ChartsViewState createChartsViewState() {
         int scroll = scrollView.getScrollY();
 
-        ChartViewState[] states = new ChartViewState[chartViews.size()];
+        ChartViewState[] states = new ChartViewState[chartViews.length];
         for (int i = 0; i < states.length; i++) {
-            states[i] = chartViews.get(i).getState();
+            if (chartViews[i] != null) {
+                states[i] = chartViews[i].getState();
+            }
+            else {
+                // the chart is still loading, keep the state it is going to get
+                states[i] = getSavedState(i);
+            }
         }
         return new ChartsViewState(states, scroll);
     }
 
+    private ChartViewState getSavedState(int index) {
+        ChartsViewState chartStates = savedChartsViewState;
+        if (chartStates != null &&
+                chartStates.states != null &&
+                chartStates.states.length > index) {
+            return chartStates.states[index];
+        }
+        return null;
+    }
+
+    private ChartsRepo chartsRepo() {
+        return ServiceLocator.getInstance(getApplicationContext()).chartsRepo();
+    }
+
     private void readChartData() {
         handler.postDelayed(showLoading, 500);
-        new ReadChartData(this).execute((Void) null);
+        chartsRepo().loadCharts(this);
     }
 
-    private static class ReadChartData extends AsyncTask<Void, Void, List<ChartData>> {
+    @Override
+    public void onChartLoaded(int index, ChartData chartData) {
+        if (isFinishing()) {
+            return;
+        }
+
+        progressBar.setVisibility(View.GONE);
+        container.setVisibility(View.VISIBLE);
+        handler.removeCallbacks(showLoading);
 
-        private final WeakReference<MainActivity> weakActivity;
-        private final ChartsRepo chartsRepo;
+        ChartView chartView = new ChartView(this);
+        if (chartData.type == ChartData.TYPE_PERCENTAGE) {
+            chartView.setVerticalItemsCount(5);
+        }
+        else {
+            chartView.setVerticalItemsCount(6);
+        }
+        chartView.setHorizontalItemsCount(6);
+        chartView.setLabelAtlas(labelAtlas);
+        chartView.setChartData(chartData);
 
-        public ReadChartData(MainActivity context) {
-            weakActivity = new WeakReference<>(context);
-            chartsRepo = ServiceLocator.getInstance(
-                    context.getApplicationContext()).chartsRepo();
+        ChartViewState state = getSavedState(index);
+        if (state != null) {
+            chartView.setState(state);
         }
 
-        @Override
-        protected List<ChartData> doInBackground(Void... voids) {
-            Context context = weakActivity.get();
-            if (context == null) {
-                return null;
+        // charts arrive in any order, so the view goes after
+        // the ones that precede it in the list
+        int position = 0;
+        for (int i = 0; i < index; i++) {
+            if (chartViews[i] != null) {
+                position++;
             }
-
-            return chartsRepo.getCharts();
         }
 
-        @Override
-        protected void onPostExecute(List<ChartData> chartsData) {
-            super.onPostExecute(chartsData);
+        LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(
+                ViewGroup.LayoutParams.MATCH_PARENT,
+                ViewGroup.LayoutParams.WRAP_CONTENT);
+        lp.topMargin = getResources()
+                .getDimensionPixelSize(R.dimen.chart_margin_top);
+        lp.bottomMargin = getResources()
+                .getDimensionPixelSize(R.dimen.chart_margin_bottom);
+        container.addView(chartView, position, lp);
 
-            final MainActivity activity = weakActivity.get();
-            if (activity == null) {
-                return;
-            }
+        chartViews[index] = chartView;
+    }
 
-            activity.chartsLoaded = true;
-            activity.progressBar.setVisibility(View.GONE);
-            activity.container.setVisibility(View.VISIBLE);
-            activity.handler.removeCallbacks(activity.showLoading);
-
-            final ChartsViewState chartStates = activity.savedChartsViewState;
-            final int savedScroll = chartStates != null ? chartStates.scroll : 0;
-
-            activity.scrollView.getViewTreeObserver()
-                    .addOnGlobalLayoutListener(
-                            new ViewTreeObserver.OnGlobalLayoutListener() {
-                                @Override
-                                public void onGlobalLayout() {
-                                    activity.scrollView
-                                            .getViewTreeObserver()
-                                            .removeOnGlobalLayoutListener(this);
-                                    activity.scrollView.setScrollY(savedScroll);
-                                }
-                            });
-
-            for (int i = 0; i < chartsData.size(); i++) {
-                ChartData chartData = chartsData.get(i);
-
-                ChartView chartView = new ChartView(activity);
-                if (chartData.type == ChartData.TYPE_PERCENTAGE) {
-                    chartView.setVerticalItemsCount(5);
-                }
-                else {
-                    chartView.setVerticalItemsCount(6);
-                }
-                chartView.setHorizontalItemsCount(6);
-                chartView.setChartData(chartData);
-
-                if (chartStates != null &&
-                        chartStates.states != null &&
-                        chartStates.states.length > i) {
-                    ChartViewState state = chartStates.states[i];
-                    chartView.setState(state);
-                }
+    @Override
+    public void onChartsLoaded() {
+        if (isFinishing()) {
+            return;
+        }
 
-                LinearLayout.LayoutParams lp = new LinearLayout.LayoutParams(
-                        ViewGroup.LayoutParams.MATCH_PARENT,
-                        ViewGroup.LayoutParams.WRAP_CONTENT);
-                lp.topMargin = activity.getResources()
-                        .getDimensionPixelSize(R.dimen.chart_margin_top);
-                lp.bottomMargin = activity.getResources()
-                        .getDimensionPixelSize(R.dimen.chart_margin_bottom);
-                activity.container.addView(chartView, lp);
+        chartsLoaded = true;
 
-                activity.chartViews.add(chartView);
-            }
+        ChartsViewState chartStates = savedChartsViewState;
+        final int savedScroll = chartStates != null ? chartStates.scroll : 0;
+
+        if (savedScroll == 0) {
+            return;
         }
+
+        scrollView.getViewTreeObserver()
+                .addOnGlobalLayoutListener(
+                        new ViewTreeObserver.OnGlobalLayoutListener() {
+                            @Override
+                            public void onGlobalLayout() {
+                                scrollView
+                                        .getViewTreeObserver()
+                                        .removeOnGlobalLayoutListener(this);
+                                scrollView.setScrollY(savedScroll);
+                            }
+                        });
     }
 }
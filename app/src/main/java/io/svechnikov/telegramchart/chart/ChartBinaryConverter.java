@@ -0,0 +1,92 @@
+package io.svechnikov.telegramchart.chart;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import io.svechnikov.telegramchart.chart.data.Axis;
+import io.svechnikov.telegramchart.chart.data.ChartData;
+import io.svechnikov.telegramchart.chart.data.Entity;
+
+// Converts parsed overview.json data into the format described in ChartBinaryFormat
+public class ChartBinaryConverter {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    public void write(ChartData chartData,
+                      long sourceStamp,
+                      File target) throws IOException {
+        List<Entity> entities = chartData.entities;
+        Axis axis = chartData.axis;
+        int pointsCount = axis.size();
+        int entitiesCount = entities.size();
+
+        byte[][] names = new byte[entitiesCount][];
+        long size = ChartBinaryFormat.namesOffset(pointsCount, entitiesCount);
+        for (int i = 0; i < entitiesCount; i++) {
+            names[i] = entities.get(i).title.getBytes(UTF_8);
+            size += 4 + names[i].length;
+        }
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Chart is too large");
+        }
+
+        ByteBuffer buffer = ByteBuffer.allocate((int)size)
+                .order(ChartBinaryFormat.ORDER);
+
+        buffer.putInt(ChartBinaryFormat.OFFSET_MAGIC, ChartBinaryFormat.MAGIC);
+        buffer.putInt(ChartBinaryFormat.OFFSET_VERSION, ChartBinaryFormat.VERSION);
+        buffer.putLong(ChartBinaryFormat.OFFSET_STAMP, sourceStamp);
+        buffer.putInt(ChartBinaryFormat.OFFSET_TYPE, chartData.type);
+        buffer.putInt(ChartBinaryFormat.OFFSET_POINTS_COUNT, pointsCount);
+        buffer.putInt(ChartBinaryFormat.OFFSET_ENTITIES_COUNT, entitiesCount);
+
+        buffer.position(ChartBinaryFormat.timestampsOffset());
+        buffer.asLongBuffer().put(axis.timestamps);
+        buffer.position(buffer.position() + 8 * pointsCount);
+
+        for (Entity entity: entities) {
+            if (entity.values.length != pointsCount) {
+                throw new IOException("Column sizes differ");
+            }
+            buffer.asIntBuffer().put(entity.values);
+            buffer.position(buffer.position() + 4 * pointsCount);
+        }
+
+        for (Entity entity: entities) {
+            buffer.putInt(entity.originalColor);
+        }
+
+        for (byte[] name: names) {
+            buffer.putInt(name.length);
+            buffer.put(name);
+        }
+
+        buffer.flip();
+
+        // write to a temporary file first, so a half-written file is never mapped
+        File parent = target.getParentFile();
+        if (parent != null && !parent.exists() && !parent.mkdirs()) {
+            throw new IOException("Cannot create " + parent);
+        }
+        File temp = new File(target.getPath() + ".tmp");
+        FileOutputStream out = new FileOutputStream(temp);
+        try {
+            FileChannel channel = out.getChannel();
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+        finally {
+            out.close();
+        }
+        if (!temp.renameTo(target)) {
+            temp.delete();
+            throw new IOException("Cannot write " + target);
+        }
+    }
+}
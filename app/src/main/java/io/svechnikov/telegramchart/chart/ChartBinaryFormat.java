@@ -0,0 +1,48 @@
+package io.svechnikov.telegramchart.chart;
+
+import java.nio.ByteOrder;
+
+// Layout of a chart cache file:
+//
+// header       magic, version, source stamp (long), type, points count, entities count
+// timestamps   long[points count]
+// values       int[points count] for every entity
+// colors       int[entities count]
+// names        length-prefixed UTF-8 strings
+//
+// Fixed-size columns come first, so every column starts at an offset
+// aligned to its element size and can be viewed in place after mapping
+final class ChartBinaryFormat {
+
+    static final int MAGIC = 0x54474348; // "TGCH"
+    static final int VERSION = 1;
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+
+    static final int HEADER_SIZE = 32;
+
+    static final int OFFSET_MAGIC = 0;
+    static final int OFFSET_VERSION = 4;
+    static final int OFFSET_STAMP = 8;
+    static final int OFFSET_TYPE = 16;
+    static final int OFFSET_POINTS_COUNT = 20;
+    static final int OFFSET_ENTITIES_COUNT = 24;
+
+    private ChartBinaryFormat() {
+    }
+
+    static int timestampsOffset() {
+        return HEADER_SIZE;
+    }
+
+    static long valuesOffset(int pointsCount, int entityIndex) {
+        return HEADER_SIZE + 8L * pointsCount + 4L * pointsCount * entityIndex;
+    }
+
+    static long colorsOffset(int pointsCount, int entitiesCount) {
+        return valuesOffset(pointsCount, entitiesCount);
+    }
+
+    static long namesOffset(int pointsCount, int entitiesCount) {
+        return colorsOffset(pointsCount, entitiesCount) + 4L * entitiesCount;
+    }
+}
@@ -0,0 +1,118 @@
+package io.svechnikov.telegramchart.chart;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+import io.svechnikov.telegramchart.chart.data.Axis;
+import io.svechnikov.telegramchart.chart.data.ChartData;
+import io.svechnikov.telegramchart.chart.data.DateLabels;
+import io.svechnikov.telegramchart.chart.data.Entity;
+
+// Maps a file written by ChartBinaryConverter and reads the columns
+// through buffer views, so loading doesn't depend on parsing speed
+public class ChartBinaryLoader {
+
+    private static final Charset UTF_8 = Charset.forName("UTF-8");
+
+    private final DateLabels dateLabels;
+
+    public ChartBinaryLoader(DateLabels dateLabels) {
+        this.dateLabels = dateLabels;
+    }
+
+    // Returns null if there is no valid file for the given source stamp
+    public ChartData load(File source,
+                          long sourceStamp,
+                          String title,
+                          String detailsPath) {
+        if (!source.isFile()) {
+            return null;
+        }
+        try {
+            RandomAccessFile file = new RandomAccessFile(source, "r");
+            try {
+                FileChannel channel = file.getChannel();
+                MappedByteBuffer buffer = channel.map(
+                        FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                buffer.order(ChartBinaryFormat.ORDER);
+                return read(buffer, sourceStamp, title, detailsPath);
+            }
+            finally {
+                // the mapping stays valid after the channel is closed
+                file.close();
+            }
+        }
+        catch (IOException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    private ChartData read(ByteBuffer buffer,
+                           long sourceStamp,
+                           String title,
+                           String detailsPath) throws IOException {
+        int size = buffer.limit();
+        if (size < ChartBinaryFormat.HEADER_SIZE ||
+                buffer.getInt(ChartBinaryFormat.OFFSET_MAGIC) != ChartBinaryFormat.MAGIC ||
+                buffer.getInt(ChartBinaryFormat.OFFSET_VERSION) != ChartBinaryFormat.VERSION ||
+                buffer.getLong(ChartBinaryFormat.OFFSET_STAMP) != sourceStamp) {
+            return null;
+        }
+
+        int type = buffer.getInt(ChartBinaryFormat.OFFSET_TYPE);
+        int pointsCount = buffer.getInt(ChartBinaryFormat.OFFSET_POINTS_COUNT);
+        int entitiesCount = buffer.getInt(ChartBinaryFormat.OFFSET_ENTITIES_COUNT);
+
+        if (type < ChartData.TYPE_Y_SCALED || type > ChartData.TYPE_LINE ||
+                pointsCount < 0 || entitiesCount < 0 ||
+                ChartBinaryFormat.namesOffset(pointsCount, entitiesCount) > size) {
+            return null;
+        }
+
+        buffer.position(ChartBinaryFormat.timestampsOffset());
+        LongBuffer timestampsColumn = buffer.asLongBuffer();
+        long[] timestamps = new long[pointsCount];
+        timestampsColumn.get(timestamps);
+
+        buffer.position((int)ChartBinaryFormat.colorsOffset(pointsCount, entitiesCount));
+        IntBuffer colorsColumn = buffer.asIntBuffer();
+
+        buffer.position((int)ChartBinaryFormat.namesOffset(pointsCount, entitiesCount));
+        List<Entity> entities = new ArrayList<>(entitiesCount);
+
+        for (int i = 0; i < entitiesCount; i++) {
+            int nameLength = buffer.getInt();
+            // a damaged file must not make us allocate whatever it says
+            if (nameLength < 0 || nameLength > buffer.remaining()) {
+                throw new IOException("Invalid name length " + nameLength);
+            }
+            byte[] name = new byte[nameLength];
+            buffer.get(name);
+
+            int valuesOffset = (int)ChartBinaryFormat.valuesOffset(pointsCount, i);
+            IntBuffer valuesColumn = ((ByteBuffer)buffer.duplicate()
+                    .order(ChartBinaryFormat.ORDER)
+                    .position(valuesOffset)).asIntBuffer();
+
+            // Entity keeps a plain int[] since draw loops index it per point,
+            // so the column is bulk-copied once instead of boxed value by value
+            int[] values = new int[pointsCount];
+            valuesColumn.get(values);
+
+            entities.add(new Entity(i, colorsColumn.get(i),
+                    new String(name, UTF_8), values));
+        }
+
+        return new ChartData(title, entities,
+                new Axis(timestamps, dateLabels), type, detailsPath);
+    }
+}
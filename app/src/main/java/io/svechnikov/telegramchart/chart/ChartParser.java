@@ -1,116 +1,118 @@
 package io.svechnikov.telegramchart.chart;
 
-import android.content.Context;
 import android.graphics.Color;
+import android.util.JsonReader;
 
-import org.json.JSONArray;
-import org.json.JSONException;
-import org.json.JSONObject;
-
-import java.text.SimpleDateFormat;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.util.ArrayList;
-import java.util.Date;
+import java.util.Arrays;
+import java.util.HashMap;
 import java.util.List;
-import java.util.Locale;
+import java.util.Map;
 
 import io.svechnikov.telegramchart.chart.data.Axis;
 import io.svechnikov.telegramchart.chart.data.ChartData;
+import io.svechnikov.telegramchart.chart.data.DateLabels;
 import io.svechnikov.telegramchart.chart.data.Entity;
 
+// Reads the chart json token by token, so no intermediate JSONObject tree
+// is built and column values go straight into primitive arrays
 public class ChartParser {
 
-    private final SimpleDateFormat selectedDateFormat;
-
-    private final SimpleDateFormat boundDateFormat;
-
-    private final SimpleDateFormat shortDateFormat;
+    private static final String TYPE_X = "x";
 
-    public ChartParser(Context context) {
-        Locale currentLocale;
+    private static final int INITIAL_COLUMN_CAPACITY = 256;
 
-        try {
-            currentLocale = context.getResources().getConfiguration().locale;
-        }
-        catch (Exception e) {
-            currentLocale = Locale.US;
-        }
+    private final DateLabels dateLabels;
 
-        selectedDateFormat =
-                new SimpleDateFormat("EEE, dd MMM yyyy", currentLocale);
-
-        boundDateFormat =
-                new SimpleDateFormat("dd MMMM yyyy", currentLocale);
-
-        shortDateFormat =
-                new SimpleDateFormat("MMM dd", currentLocale);
+    public ChartParser(DateLabels dateLabels) {
+        this.dateLabels = dateLabels;
     }
 
     public ChartData parse(String title,
-                           String chartJson,
-                           String detailsPath) throws JSONException {
-        JSONObject jsonObject = new JSONObject(chartJson);
-
-        JSONObject types = jsonObject.getJSONObject("types");
-        JSONObject colors = jsonObject.getJSONObject("colors");
-        JSONObject names = jsonObject.getJSONObject("names");
-        JSONArray columns = jsonObject.getJSONArray("columns");
+                           InputStream chartJson,
+                           String detailsPath) throws IOException {
+        Map<String, String> types = new HashMap<>();
+        Map<String, String> colors = new HashMap<>();
+        Map<String, String> names = new HashMap<>();
+        List<Column> columns = new ArrayList<>();
 
-        boolean yScaled = jsonObject.has("y_scaled") &&
-                jsonObject.getBoolean("y_scaled");
+        boolean yScaled = false;
+        boolean stacked = false;
+        boolean percentage = false;
 
-        boolean stacked = jsonObject.has("stacked") &&
-                jsonObject.getBoolean("stacked");
+        JsonReader reader = new JsonReader(
+                new InputStreamReader(chartJson, "UTF-8"));
 
-        boolean percentage = jsonObject.has("percentage") &&
-                jsonObject.getBoolean("percentage");
+        try {
+            reader.beginObject();
+            while (reader.hasNext()) {
+                switch (reader.nextName()) {
+                    case "columns":
+                        readColumns(reader, types, columns);
+                        break;
+                    case "types":
+                        readStrings(reader, types);
+                        break;
+                    case "colors":
+                        readStrings(reader, colors);
+                        break;
+                    case "names":
+                        readStrings(reader, names);
+                        break;
+                    case "y_scaled":
+                        yScaled = reader.nextBoolean();
+                        break;
+                    case "stacked":
+                        stacked = reader.nextBoolean();
+                        break;
+                    case "percentage":
+                        percentage = reader.nextBoolean();
+                        break;
+                    default:
+                        reader.skipValue();
+                }
+            }
+            reader.endObject();
+        }
+        finally {
+            reader.close();
+        }
 
         boolean isBar = false;
 
-        Axis.Point[] horizontalAxisValues = null;
+        Axis axisX = null;
         List<Entity> entities = new ArrayList<>();
 
-        for (int i = 0; i < columns.length(); i++) {
-            JSONArray column = columns.getJSONArray(i);
-            String id = column.getString(0);
-            String type = types.getString(id);
+        for (Column column: columns) {
+            String id = column.id;
+            String type = require(types, id);
 
             if (type.equals("bar")) {
                 isBar = true;
             }
 
             switch (type) {
-                case "x":
-                    horizontalAxisValues = new Axis.Point[column.length() - 1];
-                    for (int j = 1; j < column.length(); j++) {
-                        Date date = new Date(column.getLong(j));
-
-                        String selectedName = selectedDateFormat.format(date);
-                        String boundName = boundDateFormat.format(date);
-
-                        String shortName = shortDateFormat.format(date);
-                        int pointIndex = j - 1;
-                        horizontalAxisValues[pointIndex] =
-                                new Axis.Point(pointIndex,
-                                        selectedName,
-                                        boundName,
-                                        shortName,
-                                        date);
-                    }
+                case TYPE_X:
+                    axisX = new Axis(column.longValues(), dateLabels);
                     break;
                 case "line":
                 case "bar":
                 case "area":
-                    String entityTitle = names.getString(id);
-                    int color = Color.parseColor(colors.getString(id));
-                    int values[] = new int[column.length() - 1];
-                    for (int j = 1; j < column.length(); j++) {
-                        values[j - 1] = column.getInt(j);
-                    }
-                    entities.add(new Entity(color, entityTitle, values));
+                    String entityTitle = require(names, id);
+                    int color = Color.parseColor(require(colors, id));
+                    entities.add(new Entity(entities.size(), color, entityTitle,
+                            column.intValues()));
                     break;
             }
         }
 
+        if (axisX == null) {
+            throw new IOException("No x column");
+        }
+
         int type;
 
         if (yScaled) {
@@ -131,7 +133,100 @@ public class ChartParser {
             type = ChartData.TYPE_LINE;
         }
 
-        Axis axisX = new Axis(horizontalAxisValues);
         return new ChartData(title, entities, axisX, type, detailsPath);
     }
+
+    private static String require(Map<String, String> map,
+                                  String id) throws IOException {
+        String value = map.get(id);
+        if (value == null) {
+            throw new IOException("No value for column " + id);
+        }
+        return value;
+    }
+
+    private static void readStrings(JsonReader reader,
+                                    Map<String, String> target) throws IOException {
+        reader.beginObject();
+        while (reader.hasNext()) {
+            target.put(reader.nextName(), reader.nextString());
+        }
+        reader.endObject();
+    }
+
+    // "types" may come after "columns", so a column whose type is not known yet
+    // is read as long[] and narrowed once all the keys have been read
+    private static void readColumns(JsonReader reader,
+                                    Map<String, String> types,
+                                    List<Column> columns) throws IOException {
+        reader.beginArray();
+        while (reader.hasNext()) {
+            reader.beginArray();
+            String id = reader.nextString();
+            String type = types.get(id);
+            Column column = new Column(id);
+
+            if (type == null || type.equals(TYPE_X)) {
+                long[] values = new long[INITIAL_COLUMN_CAPACITY];
+                int size = 0;
+                while (reader.hasNext()) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = reader.nextLong();
+                }
+                column.longs = values;
+                column.size = size;
+            }
+            else {
+                int[] values = new int[INITIAL_COLUMN_CAPACITY];
+                int size = 0;
+                while (reader.hasNext()) {
+                    if (size == values.length) {
+                        values = Arrays.copyOf(values, size * 2);
+                    }
+                    values[size++] = reader.nextInt();
+                }
+                column.ints = values;
+                column.size = size;
+            }
+            reader.endArray();
+            columns.add(column);
+        }
+        reader.endArray();
+    }
+
+    private static class Column {
+
+        final String id;
+        long[] longs;
+        int[] ints;
+        int size;
+
+        Column(String id) {
+            this.id = id;
+        }
+
+        long[] longValues() {
+            if (longs == null) {
+                long[] values = new long[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = ints[i];
+                }
+                return values;
+            }
+            return longs.length == size ? longs : Arrays.copyOf(longs, size);
+        }
+
+        int[] intValues() {
+            if (ints == null) {
+                int[] values = new int[size];
+                for (int i = 0; i < size; i++) {
+                    values[i] = (int)longs[i];
+                }
+                return values;
+            }
+            return ints.length == size ? ints : Arrays.copyOf(ints, size);
+        }
+    }
 }
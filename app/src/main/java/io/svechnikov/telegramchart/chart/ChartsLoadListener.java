@@ -0,0 +1,10 @@
+package io.svechnikov.telegramchart.chart;
+
+import io.svechnikov.telegramchart.chart.data.ChartData;
+
+public interface ChartsLoadListener {
+    // Charts may arrive in any order, index is the chart's position in the list
+    void onChartLoaded(int index, ChartData chartData);
+
+    void onChartsLoaded();
+}
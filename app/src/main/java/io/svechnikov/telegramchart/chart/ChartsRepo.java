@@ -1,43 +1,61 @@
 package io.svechnikov.telegramchart.chart;
 
 import android.content.Context;
-import android.content.res.AssetManager;
+import android.content.pm.PackageManager;
 import android.graphics.Color;
+import android.os.Handler;
+import android.os.Looper;
 
+import java.io.File;
+import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.data.ChartData;
+import io.svechnikov.telegramchart.chart.data.DateLabels;
 import io.svechnikov.telegramchart.chart.data.Entity;
 
 public class ChartsRepo {
 
+    public static final int CHARTS_COUNT = 5;
+
+    private static final String BINARY_DIR = "charts";
+
     private Context context;
-    private List<ChartData> cache;
+    private ChartData[] cache;
+    private int loadedCount;
+    private boolean loading;
+    private DateLabels dateLabels;
+    private ThreadPoolExecutor executor;
+
+    private final Handler handler = new Handler(Looper.getMainLooper());
+    private final List<ChartsLoadListener> listeners = new ArrayList<>();
 
     public ChartsRepo(Context context) {
         this.context = context;
     }
 
-    private List<ChartData> prepareColors(List<ChartData> chartDataList) {
+    private ChartData prepareColors(ChartData chartData) {
         int theme = ServiceLocator.getInstance(context).settingsRepo()
                 .getTheme();
         boolean isDarkTheme = theme == SettingsRepo.THEME_NIGHT;
 
-        for (ChartData chartData: chartDataList) {
-            for (Entity entity: chartData.entities) {
-                if (isDarkTheme) {
-                    entity.color = changeBrightness(entity.originalColor, 0.8f);
-                }
-                else {
-                    entity.color = entity.originalColor;
-                }
+        for (Entity entity: chartData.entities) {
+            if (isDarkTheme) {
+                entity.color = changeBrightness(entity.originalColor, 0.8f);
+            }
+            else {
+                entity.color = entity.originalColor;
             }
         }
 
-        return chartDataList;
+        return chartData;
     }
 
     private static int changeBrightness(int color, float factor) {
@@ -51,32 +69,163 @@ public class ChartsRepo {
                 Math.min(b,255));
     }
 
-    public List<ChartData> getCharts() {
-        if (cache == null) {
+    // Assets only change with the app itself, so its update time
+    // tells whether the cached binary files are still valid
+    private long getSourceStamp() {
+        try {
+            return context.getPackageManager()
+                    .getPackageInfo(context.getPackageName(), 0).lastUpdateTime;
+        }
+        catch (PackageManager.NameNotFoundException e) {
+            return 0;
+        }
+    }
+
+    // Shared by all the charts, since their axes mostly cover the same days
+    private DateLabels getDateLabels() {
+        if (dateLabels == null) {
+            Locale currentLocale;
+
             try {
-                ChartParser chartParser = new ChartParser(context);
-                List<ChartData> chartsData = new ArrayList<>(5);
-                AssetManager assetManager = context.getAssets();
-
-                String[] titles = context.getResources()
-                        .getStringArray(R.array.chart_titles);
-
-                for (int i = 1; i < 6; i++) {
-                    String overviewFilePath = "contest/" + i + "/overview.json";
-                    InputStream in_s = assetManager.open(overviewFilePath);
-                    byte[] b = new byte[in_s.available()];
-                    in_s.read(b);
-
-                    String title = titles[i - 1];
-                    String text = new String(b);
-                    chartsData.add(chartParser.parse(title,
-                            text, "contest/" + i));
+                currentLocale = context.getResources().getConfiguration().locale;
+            }
+            catch (Exception e) {
+                currentLocale = Locale.US;
+            }
+            dateLabels = new DateLabels(currentLocale);
+        }
+        return dateLabels;
+    }
+
+    private ChartData parseChart(ChartParser chartParser,
+                                 String title,
+                                 String detailsPath) throws IOException {
+        String overviewFilePath = detailsPath + "/overview.json";
+        InputStream in = context.getAssets().open(overviewFilePath);
+
+        try {
+            return chartParser.parse(title, in, detailsPath);
+        }
+        finally {
+            in.close();
+        }
+    }
+
+    // Charts are parsed in parallel and delivered on the main thread
+    // one by one, so the first of them can be shown before the rest are ready.
+    // Must be called from the main thread
+    public void loadCharts(ChartsLoadListener listener) {
+        if (cache != null) {
+            for (int i = 0; i < cache.length; i++) {
+                if (cache[i] != null) {
+                    listener.onChartLoaded(i, prepareColors(cache[i]));
                 }
-                cache = chartsData;
-            } catch (Exception e) {
-                throw new RuntimeException("Input data corrupted");
             }
+            if (loadedCount == CHARTS_COUNT) {
+                listener.onChartsLoaded();
+                return;
+            }
+        }
+
+        listeners.add(listener);
+
+        if (!loading) {
+            loading = true;
+            startLoading();
         }
-        return prepareColors(cache);
+    }
+
+    public void removeLoadListener(ChartsLoadListener listener) {
+        listeners.remove(listener);
+    }
+
+    private void startLoading() {
+        cache = new ChartData[CHARTS_COUNT];
+
+        final DateLabels dateLabels = getDateLabels();
+        final long sourceStamp = getSourceStamp();
+        final File binaryDir = new File(context.getCacheDir(), BINARY_DIR);
+        final String[] titles = context.getResources()
+                .getStringArray(R.array.chart_titles);
+
+        if (executor == null) {
+            int threadsCount = Math.min(CHARTS_COUNT,
+                    Runtime.getRuntime().availableProcessors());
+            executor = new ThreadPoolExecutor(threadsCount, threadsCount,
+                    1, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>());
+            // the pool is only needed at startup
+            executor.allowCoreThreadTimeOut(true);
+        }
+
+        for (int i = 0; i < CHARTS_COUNT; i++) {
+            final int index = i;
+
+            executor.execute(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        ChartData chartData = readChart(index, titles[index],
+                                dateLabels, sourceStamp, binaryDir);
+                        postChart(index, chartData);
+                    }
+                    catch (Exception e) {
+                        handler.post(new Runnable() {
+                            @Override
+                            public void run() {
+                                throw new RuntimeException("Input data corrupted");
+                            }
+                        });
+                    }
+                }
+            });
+        }
+    }
+
+    // Runs on a worker thread, the parser and the loader keep no state
+    // between calls, so each task creates its own
+    private ChartData readChart(int index,
+                                String title,
+                                DateLabels dateLabels,
+                                long sourceStamp,
+                                File binaryDir) throws IOException {
+        String detailsPath = "contest/" + (index + 1);
+        File binaryFile = new File(binaryDir, (index + 1) + ".bin");
+
+        ChartData chartData = new ChartBinaryLoader(dateLabels)
+                .load(binaryFile, sourceStamp, title, detailsPath);
+
+        if (chartData == null) {
+            chartData = parseChart(new ChartParser(dateLabels), title, detailsPath);
+            try {
+                new ChartBinaryConverter().write(chartData, sourceStamp, binaryFile);
+            }
+            catch (IOException e) {
+                // the cache is optional, the json will be parsed next time
+            }
+        }
+        return chartData;
+    }
+
+    private void postChart(final int index, final ChartData chartData) {
+        handler.post(new Runnable() {
+            @Override
+            public void run() {
+                cache[index] = chartData;
+                loadedCount++;
+                prepareColors(chartData);
+
+                for (ChartsLoadListener listener: new ArrayList<>(listeners)) {
+                    listener.onChartLoaded(index, chartData);
+                }
+
+                if (loadedCount == CHARTS_COUNT) {
+                    loading = false;
+                    for (ChartsLoadListener listener: new ArrayList<>(listeners)) {
+                        listener.onChartsLoaded();
+                    }
+                    listeners.clear();
+                }
+            }
+        });
     }
 }
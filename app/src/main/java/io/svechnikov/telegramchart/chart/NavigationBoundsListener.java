@@ -1,7 +1,7 @@
 package io.svechnikov.telegramchart.chart;
 
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
 
 public interface NavigationBoundsListener {
-    void onNavigationBoundsChanged(NavigationBounds bounds);
+    // Bounds are in axis units, both are inclusive
+    void onNavigationBoundsChanged(float left, float right);
 }
@@ -1,51 +1,33 @@
 package io.svechnikov.telegramchart.chart.data;
 
-import java.util.Date;
-
 public class Axis {
 
-    public final Point[] values;
+    public final long[] timestamps;
+
+    private final DateLabels labels;
 
-    public Axis(Point[] values) {
-        this.values = values;
+    public Axis(long[] timestamps, DateLabels labels) {
+        this.timestamps = timestamps;
+        this.labels = labels;
     }
 
     public int size() {
-        return values.length;
+        return timestamps.length;
+    }
+
+    public long timestamp(int index) {
+        return timestamps[index];
+    }
+
+    public String selectedName(int index) {
+        return labels.get(timestamps[index], DateLabels.KIND_SELECTED);
+    }
+
+    public String boundName(int index) {
+        return labels.get(timestamps[index], DateLabels.KIND_BOUND);
     }
 
-    public static class Point {
-
-        public final int index;
-        public final String selectedName;
-        public final String boundName;
-        public final String shortName;
-        public final Date date;
-
-        public Point(int index,
-                     String selectedName,
-                     String boundName,
-                     String shortName,
-                     Date date) {
-            this.index = index;
-            this.selectedName = selectedName;
-            this.boundName = boundName;
-            this.shortName = shortName;
-            this.date = date;
-        }
-
-        @Override
-        public boolean equals(Object obj) {
-            return obj instanceof Point && ((Point) obj).index == index;
-        }
-
-        @Override
-        public String toString() {
-            return "Point{" +
-                    "index=" + index +
-                    ", selectedName='" + selectedName + '\'' +
-                    ", shortName='" + shortName + '\'' +
-                    '}';
-        }
+    public String shortName(int index) {
+        return labels.get(timestamps[index], DateLabels.KIND_SHORT);
     }
 }
@@ -0,0 +1,62 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import android.util.LongSparseArray;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.TimeZone;
+
+// Formats axis labels on demand and keeps them by local day, so a label
+// is formatted once no matter how many points or charts fall on that day.
+// Labels are requested from the main thread only
+public class DateLabels {
+
+    public static final int KIND_SELECTED = 0;
+    public static final int KIND_BOUND = 1;
+    public static final int KIND_SHORT = 2;
+
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final SimpleDateFormat[] formats;
+    private final LongSparseArray<String>[] labels;
+    private final TimeZone timeZone = TimeZone.getDefault();
+    private final Date date = new Date();
+
+    @SuppressWarnings("unchecked")
+    public DateLabels(Locale locale) {
+        formats = new SimpleDateFormat[] {
+                new SimpleDateFormat("EEE, dd MMM yyyy", locale),
+                new SimpleDateFormat("dd MMMM yyyy", locale),
+                new SimpleDateFormat("MMM dd", locale)
+        };
+        labels = new LongSparseArray[formats.length];
+        for (int i = 0; i < formats.length; i++) {
+            formats[i].setTimeZone(timeZone);
+            labels[i] = new LongSparseArray<>();
+        }
+    }
+
+    public String get(long timestamp, int kind) {
+        long day = localDay(timestamp);
+        LongSparseArray<String> cache = labels[kind];
+        String label = cache.get(day);
+
+        if (label == null) {
+            date.setTime(timestamp);
+            label = formats[kind].format(date);
+            cache.put(day, label);
+        }
+        return label;
+    }
+
+    private long localDay(long timestamp) {
+        long local = timestamp + timeZone.getOffset(timestamp);
+        long day = local / DAY_MILLIS;
+        // rounds towards negative infinity for timestamps before the epoch
+        if (local < 0 && day * DAY_MILLIS != local) {
+            day--;
+        }
+        return day;
+    }
+}
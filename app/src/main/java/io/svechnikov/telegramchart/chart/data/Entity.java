@@ -2,6 +2,9 @@ package io.svechnikov.telegramchart.chart.data;
 
 public class Entity {
 
+    // Position within ChartData.entities, views keep per-entity state
+    // in arrays indexed by it
+    public final int index;
     public final int originalColor;
     public int color;
     public final String title;
@@ -10,11 +13,16 @@ public class Entity {
     private final int maxValue;
     private final int minValue;
 
+    private final RangeIndex rangeIndex;
+    private ExtremaPyramid pyramid;
+
     private boolean isVisible = true;
 
-    public Entity(int color,
+    public Entity(int index,
+                  int color,
                   String title,
                   int[] values) {
+        this.index = index;
         this.originalColor = color;
         this.color = color;
         this.title = title;
@@ -30,6 +38,8 @@ public class Entity {
 
         minValue = min;
         maxValue = max;
+
+        rangeIndex = new RangeIndex(values);
     }
 
     public void setVisible(boolean visible) {
@@ -47,4 +57,22 @@ public class Entity {
     public int minValue() {
         return minValue;
     }
+
+    // Min of values[left..right], both bounds are inclusive
+    public int rangeMin(int left, int right) {
+        return rangeIndex.min(left, right);
+    }
+
+    // Max of values[left..right], both bounds are inclusive
+    public int rangeMax(int left, int right) {
+        return rangeIndex.max(left, right);
+    }
+
+    // Built on first use, only line charts need it
+    public ExtremaPyramid getPyramid() {
+        if (pyramid == null) {
+            pyramid = new ExtremaPyramid(values);
+        }
+        return pyramid;
+    }
 }
@@ -0,0 +1,117 @@
+package io.svechnikov.telegramchart.chart.data;
+
+// Multi-resolution summary of a series for drawing it with no more
+// segments than there are pixels (M4 reduction). On level k values are split
+// into buckets of 2^k points aligned to absolute indices, and each bucket
+// keeps indices of its min and max values. Together with the bucket's first
+// and last points they keep the drawn shape identical to the raw series.
+// If the values are changed in place, rebuild() has to be called
+public class ExtremaPyramid {
+
+    private final int[] values;
+
+    // argMin[k][b] is the index of the min value within bucket b of level k,
+    // level 0 is the raw series and isn't stored
+    private final int[][] argMin;
+    private final int[][] argMax;
+
+    public ExtremaPyramid(int[] values) {
+        this.values = values;
+
+        int levels = 1;
+        while ((1 << levels) < values.length) {
+            levels++;
+        }
+        argMin = new int[levels][];
+        argMax = new int[levels][];
+
+        for (int k = 1; k < levels; k++) {
+            int count = ((values.length - 1) >> k) + 1;
+            argMin[k] = new int[count];
+            argMax[k] = new int[count];
+        }
+
+        rebuild();
+    }
+
+    public void rebuild() {
+        for (int k = 1; k < argMin.length; k++) {
+            int[] min = argMin[k];
+            int[] max = argMax[k];
+
+            for (int b = 0; b < min.length; b++) {
+                int first;
+                int second;
+                int firstMin, firstMax, secondMin, secondMax;
+
+                if (k == 1) {
+                    first = b << 1;
+                    second = Math.min(first + 1, values.length - 1);
+                    firstMin = firstMax = first;
+                    secondMin = secondMax = second;
+                }
+                else {
+                    first = b << 1;
+                    second = Math.min(first + 1, argMin[k - 1].length - 1);
+                    firstMin = argMin[k - 1][first];
+                    firstMax = argMax[k - 1][first];
+                    secondMin = argMin[k - 1][second];
+                    secondMax = argMax[k - 1][second];
+                }
+
+                min[b] = values[secondMin] < values[firstMin] ? secondMin : firstMin;
+                max[b] = values[secondMax] > values[firstMax] ? secondMax : firstMax;
+            }
+        }
+    }
+
+    // The coarsest level whose buckets hold at most pointsPerPixel points,
+    // 0 means that the raw series should be drawn
+    public int levelFor(float pointsPerPixel) {
+        if (pointsPerPixel < 2) {
+            return 0;
+        }
+        int level = 31 - Integer.numberOfLeadingZeros((int)pointsPerPixel);
+        return Math.min(level, argMin.length - 1);
+    }
+
+    // Index of the max value within the bucket, level must be above 0
+    public int argMax(int level, int bucket) {
+        return argMax[level][bucket];
+    }
+
+    // Upper bound of points collect() returns for the same arguments
+    public int maxPointsCount(int level, int left, int right) {
+        return ((right >> level) - (left >> level) + 1) * 4;
+    }
+
+    // Fills indices of the points to connect with lines, in ascending order.
+    // Buckets containing left and right are taken whole, so the result
+    // may go beyond the range by less than a bucket. Returns points count
+    public int collect(int level, int left, int right, int[] indices) {
+        int[] min = argMin[level];
+        int[] max = argMax[level];
+        int last = values.length - 1;
+        int count = 0;
+
+        for (int b = left >> level; b <= right >> level; b++) {
+            int start = b << level;
+            int end = Math.min(start + (1 << level) - 1, last);
+            int low = Math.min(min[b], max[b]);
+            int high = Math.max(min[b], max[b]);
+
+            count = append(indices, count, start);
+            count = append(indices, count, low);
+            count = append(indices, count, high);
+            count = append(indices, count, end);
+        }
+        return count;
+    }
+
+    private static int append(int[] indices, int count, int index) {
+        if (count == 0 || indices[count - 1] != index) {
+            indices[count++] = index;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,147 @@
+package io.svechnikov.telegramchart.chart.data;
+
+// Answers min/max queries over a range of values in constant time.
+// Values are split into blocks, each value keeps min/max from the start
+// of its block and to the end of its block, and a sparse table covers
+// whole blocks, so a query looks at no more than six precomputed values.
+// Ranges within a single block are scanned, which is bounded by BLOCK_SIZE.
+// If the values are changed in place, rebuild() has to be called
+public class RangeIndex {
+
+    private static final int BLOCK_SHIFT = 5;
+    private static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    private final int[] values;
+
+    private final int[] prefixMin;
+    private final int[] prefixMax;
+    private final int[] suffixMin;
+    private final int[] suffixMax;
+
+    // blockMin[k][b] is the min of 2^k blocks starting with block b
+    private final int[][] blockMin;
+    private final int[][] blockMax;
+
+    public RangeIndex(int[] values) {
+        this.values = values;
+
+        int size = values.length;
+        int blocksCount = (size + BLOCK_SIZE - 1) >> BLOCK_SHIFT;
+
+        prefixMin = new int[size];
+        prefixMax = new int[size];
+        suffixMin = new int[size];
+        suffixMax = new int[size];
+
+        int levels = 1;
+        while ((1 << levels) <= blocksCount) {
+            levels++;
+        }
+        blockMin = new int[levels][];
+        blockMax = new int[levels][];
+        for (int k = 0; k < levels; k++) {
+            int count = blocksCount - (1 << k) + 1;
+            blockMin[k] = new int[count];
+            blockMax[k] = new int[count];
+        }
+
+        rebuild();
+    }
+
+    public void rebuild() {
+        int size = values.length;
+        int blocksCount = blockMin[0].length;
+
+        for (int b = 0; b < blocksCount; b++) {
+            int start = b << BLOCK_SHIFT;
+            int end = Math.min(start + BLOCK_SIZE, size) - 1;
+
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            for (int i = start; i <= end; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+                prefixMin[i] = min;
+                prefixMax[i] = max;
+            }
+
+            min = Integer.MAX_VALUE;
+            max = Integer.MIN_VALUE;
+            for (int i = end; i >= start; i--) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+                suffixMin[i] = min;
+                suffixMax[i] = max;
+            }
+
+            blockMin[0][b] = min;
+            blockMax[0][b] = max;
+        }
+
+        for (int k = 1; k < blockMin.length; k++) {
+            int half = 1 << (k - 1);
+            int[] prevMin = blockMin[k - 1];
+            int[] prevMax = blockMax[k - 1];
+            int[] min = blockMin[k];
+            int[] max = blockMax[k];
+            for (int b = 0; b < min.length; b++) {
+                min[b] = Math.min(prevMin[b], prevMin[b + half]);
+                max[b] = Math.max(prevMax[b], prevMax[b + half]);
+            }
+        }
+    }
+
+    // Both bounds are inclusive
+    public int min(int left, int right) {
+        int leftBlock = left >> BLOCK_SHIFT;
+        int rightBlock = right >> BLOCK_SHIFT;
+
+        if (leftBlock == rightBlock) {
+            int min = Integer.MAX_VALUE;
+            for (int i = left; i <= right; i++) {
+                min = Math.min(min, values[i]);
+            }
+            return min;
+        }
+
+        int min = Math.min(suffixMin[left], prefixMin[right]);
+
+        if (rightBlock - leftBlock > 1) {
+            int from = leftBlock + 1;
+            int to = rightBlock - 1;
+            int k = log2(to - from + 1);
+            min = Math.min(min, Math.min(blockMin[k][from],
+                    blockMin[k][to - (1 << k) + 1]));
+        }
+        return min;
+    }
+
+    // Both bounds are inclusive
+    public int max(int left, int right) {
+        int leftBlock = left >> BLOCK_SHIFT;
+        int rightBlock = right >> BLOCK_SHIFT;
+
+        if (leftBlock == rightBlock) {
+            int max = Integer.MIN_VALUE;
+            for (int i = left; i <= right; i++) {
+                max = Math.max(max, values[i]);
+            }
+            return max;
+        }
+
+        int max = Math.max(suffixMax[left], prefixMax[right]);
+
+        if (rightBlock - leftBlock > 1) {
+            int from = leftBlock + 1;
+            int to = rightBlock - 1;
+            int k = log2(to - from + 1);
+            max = Math.max(max, Math.max(blockMax[k][from],
+                    blockMax[k][to - (1 << k) + 1]));
+        }
+        return max;
+    }
+
+    private static int log2(int x) {
+        return 31 - Integer.numberOfLeadingZeros(x);
+    }
+}
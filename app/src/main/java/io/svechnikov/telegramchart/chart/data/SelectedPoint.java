@@ -1,22 +1,52 @@
 package io.svechnikov.telegramchart.chart.data;
 
-import java.util.LinkedHashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+// Values of the selected point by Entity.index. Only the entities
+// marked as contained are set, so nothing is boxed or allocated while the selection
+// moves, the arrays grow only for the first point of a chart
 public class SelectedPoint {
 
     public String title;
     public float x = -1;
-    public final Map<Entity, Integer> values = new LinkedHashMap<>(2);
-    public final Map<Entity, Float> coordsY = new LinkedHashMap<>(2);
-    public final Map<Entity, Integer> percentValues = new LinkedHashMap<>(2);
+    private boolean[] contained = new boolean[0];
+    private int size;
+    public Entity[] entities = new Entity[0];
+    public int[] values = new int[0];
+    public float[] coordsY = new float[0];
+    public int[] percentValues = new int[0];
 
     public void addValue(Entity entity, int value) {
-        values.put(entity, value);
+        int index = entity.index;
+        ensureCapacity(index + 1);
+        entities[index] = entity;
+        values[index] = value;
+        if (!contained[index]) {
+            contained[index] = true;
+            size++;
+        }
     }
 
     public void addCoordY(Entity entity, float coordY) {
-        coordsY.put(entity, coordY);
+        ensureCapacity(entity.index + 1);
+        coordsY[entity.index] = coordY;
+    }
+
+    public void addPercentValue(Entity entity, int percentValue) {
+        ensureCapacity(entity.index + 1);
+        percentValues[entity.index] = percentValue;
+    }
+
+    public boolean contains(int entityIndex) {
+        return entityIndex < contained.length && contained[entityIndex];
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
     }
 
     public boolean isReady() {
@@ -26,7 +56,35 @@ public class SelectedPoint {
     public void reset() {
         this.x = -1;
         title = null;
-        values.clear();
-        coordsY.clear();
+        if (size != 0) {
+            Arrays.fill(contained, false);
+            size = 0;
+        }
+    }
+
+    private void ensureCapacity(int count) {
+        if (entities.length >= count) {
+            return;
+        }
+        Entity[] entities = new Entity[count];
+        System.arraycopy(this.entities, 0, entities, 0, this.entities.length);
+        this.entities = entities;
+
+        int[] values = new int[count];
+        System.arraycopy(this.values, 0, values, 0, this.values.length);
+        this.values = values;
+
+        float[] coordsY = new float[count];
+        System.arraycopy(this.coordsY, 0, coordsY, 0, this.coordsY.length);
+        this.coordsY = coordsY;
+
+        int[] percentValues = new int[count];
+        System.arraycopy(this.percentValues, 0, percentValues, 0,
+                this.percentValues.length);
+        this.percentValues = percentValues;
+
+        boolean[] contained = new boolean[count];
+        System.arraycopy(this.contained, 0, contained, 0, this.contained.length);
+        this.contained = contained;
     }
 }
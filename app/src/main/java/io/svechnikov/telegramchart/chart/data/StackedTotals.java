@@ -0,0 +1,70 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import java.util.List;
+
+// Per-point sum of the visible entities' values. Toggling an entity adds
+// or subtracts its values in one pass instead of summing all of them again
+public class StackedTotals {
+
+    private final List<Entity> entities;
+    private final boolean[] included;
+    private final int[] totals;
+    private final RangeIndex rangeIndex;
+    private final ExtremaPyramid pyramid;
+
+    public StackedTotals(List<Entity> entities, int pointsCount) {
+        this.entities = entities;
+        included = new boolean[entities.size()];
+        totals = new int[pointsCount];
+
+        for (int i = 0; i < included.length; i++) {
+            Entity entity = entities.get(i);
+            if (entity.isVisible()) {
+                add(entity.values, 1);
+                included[i] = true;
+            }
+        }
+
+        rangeIndex = new RangeIndex(totals);
+        pyramid = new ExtremaPyramid(totals);
+    }
+
+    // Brings the totals in line with the current entities visibility
+    public void sync() {
+        boolean changed = false;
+
+        for (int i = 0; i < included.length; i++) {
+            Entity entity = entities.get(i);
+            if (entity.isVisible() != included[i]) {
+                add(entity.values, entity.isVisible() ? 1 : -1);
+                included[i] = entity.isVisible();
+                changed = true;
+            }
+        }
+
+        if (changed) {
+            rangeIndex.rebuild();
+            pyramid.rebuild();
+        }
+    }
+
+    public int total(int index) {
+        return totals[index];
+    }
+
+    // Both bounds are inclusive
+    public int max(int left, int right) {
+        return rangeIndex.max(left, right);
+    }
+
+    // Buckets of the totals for drawing bars thinner than a pixel
+    public ExtremaPyramid getPyramid() {
+        return pyramid;
+    }
+
+    private void add(int[] values, int sign) {
+        for (int i = 0; i < totals.length; i++) {
+            totals[i] += sign * values[i];
+        }
+    }
+}
@@ -0,0 +1,41 @@
+package io.svechnikov.telegramchart.chart.data;
+
+// Keeps the formatted values in a small cache by value, so moving
+// the selection back and forth over the same points doesn't format them
+// again. Values of the same slot replace each other, so the cache
+// doesn't grow with the number of points the selection has visited.
+// Labels are requested from the main thread only
+public class ValueLabels {
+
+    private static final int CACHE_SIZE = 256;
+    private static final int MAX_PERCENT = 100;
+
+    private final int[] values = new int[CACHE_SIZE];
+    private final String[] labels = new String[CACHE_SIZE];
+    private final String[] percentValues = new String[MAX_PERCENT + 1];
+
+    public String get(int value) {
+        int index = (value ^ (value >>> 16)) & (CACHE_SIZE - 1);
+        String label = labels[index];
+
+        if (label == null || values[index] != value) {
+            label = String.valueOf(value);
+            values[index] = value;
+            labels[index] = label;
+        }
+        return label;
+    }
+
+    public String getPercent(int percent) {
+        if (percent < 0 || percent > MAX_PERCENT) {
+            return percent + "%";
+        }
+        String label = percentValues[percent];
+
+        if (label == null) {
+            label = percent + "%";
+            percentValues[percent] = label;
+        }
+        return label;
+    }
+}
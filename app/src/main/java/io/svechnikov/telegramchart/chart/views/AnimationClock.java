@@ -0,0 +1,100 @@
+package io.svechnikov.telegramchart.chart.views;
+
+import android.content.ContentResolver;
+import android.content.Context;
+import android.os.Build;
+import android.provider.Settings;
+import android.view.Choreographer;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Drives all the tweens of a chart. It ticks once per vsync while
+// any tween is running, advances them in one pass and then invalidates
+// every view affected by the frame once. Durations are scaled
+// by the animator duration scale of the developer options as
+// ValueAnimator does it, 0 makes the tweens jump to their end
+public class AnimationClock implements Choreographer.FrameCallback {
+
+    private final float durationScale;
+    private final List<Tween> tweens = new ArrayList<>();
+    private final List<View> targets = new ArrayList<>();
+    private Tween[] frameTweens = new Tween[0];
+    private boolean scheduled;
+
+    public AnimationClock(Context context) {
+        durationScale = readDurationScale(context.getContentResolver());
+    }
+
+    float getDurationScale() {
+        return durationScale;
+    }
+
+    void add(Tween tween) {
+        tweens.add(tween);
+        schedule();
+    }
+
+    void remove(Tween tween) {
+        tweens.remove(tween);
+    }
+
+    private void schedule() {
+        if (!scheduled) {
+            scheduled = true;
+            Choreographer.getInstance().postFrameCallback(this);
+        }
+    }
+
+    @Override
+    public void doFrame(long frameTimeNanos) {
+        scheduled = false;
+
+        // listeners may start and cancel tweens, so a copy is iterated
+        int count = tweens.size();
+        if (frameTweens.length < count) {
+            frameTweens = new Tween[count];
+        }
+        for (int i = 0; i < count; i++) {
+            frameTweens[i] = tweens.get(i);
+        }
+
+        for (int i = 0; i < count; i++) {
+            Tween tween = frameTweens[i];
+            frameTweens[i] = null;
+            if (!tween.isRunning()) {
+                continue;
+            }
+            boolean finished = !tween.advance(frameTimeNanos);
+
+            View target = tween.getTarget();
+            if (target != null && !targets.contains(target)) {
+                targets.add(target);
+            }
+            if (finished) {
+                tweens.remove(tween);
+                tween.finish();
+            }
+        }
+
+        for (int i = 0; i < targets.size(); i++) {
+            targets.get(i).invalidate();
+        }
+        targets.clear();
+
+        if (!tweens.isEmpty()) {
+            schedule();
+        }
+    }
+
+    @SuppressWarnings("deprecation")
+    private static float readDurationScale(ContentResolver resolver) {
+        if (Build.VERSION.SDK_INT >= 17) {
+            return Settings.Global.getFloat(resolver,
+                    Settings.Global.ANIMATOR_DURATION_SCALE, 1);
+        }
+        return Settings.System.getFloat(resolver,
+                Settings.System.ANIMATOR_DURATION_SCALE, 1);
+    }
+}
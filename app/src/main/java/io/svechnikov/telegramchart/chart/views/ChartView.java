@@ -39,6 +39,7 @@ public class ChartView extends LinearLayout {
     private LinearLayout noDataMessageView;
     private ViewGroup checkboxesContainer;
     private final Map<Entity, CoolCheckbox> checkboxes = new HashMap<>();
+    private final AnimationClock animationClock;
 
     public ChartView(Context context) {
         this(context, null);
@@ -51,6 +52,8 @@ public class ChartView extends LinearLayout {
     public ChartView(Context context, AttributeSet attrs, int defStyleAttr) {
         super(context, attrs, defStyleAttr);
 
+        animationClock = new AnimationClock(context);
+
         int[] style = {
                 R.attr.chartBackground,
                 R.attr.chartTitleColor};
@@ -180,6 +183,10 @@ public class ChartView extends LinearLayout {
         mainChartView.setVerticalItemsCount(count);
     }
 
+    public void setLabelAtlas(LabelAtlas labelAtlas) {
+        mainChartView.setLabelAtlas(labelAtlas);
+    }
+
     private boolean hasVisibleEntity() {
         for (Entity item: chartData.entities) {
             if (item.isVisible()) {
@@ -247,18 +254,19 @@ public class ChartView extends LinearLayout {
 
     private void createNavigationChartView() {
         navigationChartView = new NavigationChartView(getContext());
+        navigationChartView.setAnimationClock(animationClock);
         navigationChartView.addBoundsListener(mainChartView);
         navigationChartView.addStateListener(mainChartView);
         navigationChartView.addBoundsListener(new NavigationBoundsListener() {
             @Override
-            public void onNavigationBoundsChanged(NavigationBounds bounds) {
-                int leftIndex = Math.round(bounds.left);
-                int rightIndex = Math.round(bounds.right);
+            public void onNavigationBoundsChanged(float left, float right) {
+                int leftIndex = Math.round(left);
+                int rightIndex = Math.round(right);
 
-                String left = chartData.axis.values[leftIndex].boundName;
-                String right = chartData.axis.values[rightIndex].boundName;
+                String leftName = chartData.axis.boundName(leftIndex);
+                String rightName = chartData.axis.boundName(rightIndex);
 
-                boundsRangeTextView.setText(left + " - " + right);
+                boundsRangeTextView.setText(leftName + " - " + rightName);
             }
         });
         Resources r = getResources();
@@ -271,6 +279,7 @@ public class ChartView extends LinearLayout {
 
     private void createMainChartView() {
         mainChartView = new MainChartView(getContext());
+        mainChartView.setAnimationClock(animationClock);
         int height = getResources()
                 .getDimensionPixelSize(R.dimen.chart_main_chart_height);
         LinearLayout.LayoutParams lp =
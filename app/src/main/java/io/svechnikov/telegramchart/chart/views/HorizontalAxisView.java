@@ -1,6 +1,5 @@
 package io.svechnikov.telegramchart.chart.views;
 
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
@@ -12,14 +11,10 @@ import android.text.TextPaint;
 import android.util.AttributeSet;
 import android.view.View;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.NavigationBoundsListener;
 import io.svechnikov.telegramchart.chart.NavigationStateListener;
 import io.svechnikov.telegramchart.chart.data.Axis;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 
 public class HorizontalAxisView extends View
@@ -28,17 +23,24 @@ public class HorizontalAxisView extends View
     private static final float SCALE_THRESHOLD = 0.9f;
 
     private Axis axis;
-    private NavigationBounds navigationBounds;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private NavigationState state = NavigationState.IDLE;
     private int minVisibleItemsCount;
-    private ScaledPoint[] scaledPoints;
+    private String[] names;
+    private int[] widths;
     private float currentScale = -1;
     private int currentStep = -1;
+    // alpha of the labels between the ones of the current step,
+    // they fade in and out as the bounds are scaled
+    private int halfStepAlpha;
 
-    private final Map<String, Integer> textSizes = new HashMap<>();
     private final int horizontalPadding;
-    private final ValueAnimator animator = ValueAnimator.ofFloat(0, 1)
-            .setDuration(300);
+    private Tween tween;
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
+    private LabelAtlas labelAtlas;
 
     private final Paint textPaint;
 
@@ -70,35 +72,56 @@ public class HorizontalAxisView extends View
         TypedArray ta = context.obtainStyledAttributes(style);
         textPaint.setColor(ta.getColor(0, Color.GRAY));
         ta.recycle();
+    }
 
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
+    public void setAnimationClock(AnimationClock clock) {
+        tween = new Tween(clock, 300, this, new Tween.Listener() {
             @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                for (int i = 0; i < axis.size(); i++) {
-                    ScaledPoint point = scaledPoints[i];
-
-                    if (i % currentStep != 0 && i % (currentStep / 2) == 0) {
-                        float alpha;
-                        alpha = animation.getAnimatedFraction();
-
-                        if (currentScale < SCALE_THRESHOLD) {
-                            alpha = 1 - alpha;
-                        }
-                        point.alpha = (int)(alpha * 255);
-                    }
+            public void onTweenUpdate(Tween tween) {
+                float alpha = tween.getAnimatedFraction();
+
+                if (currentScale < SCALE_THRESHOLD) {
+                    alpha = 1 - alpha;
                 }
+                halfStepAlpha = (int)(alpha * 255);
+            }
+
+            @Override
+            public void onTweenEnd(Tween tween) {
 
-                invalidate();
             }
         });
     }
 
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
     public void setMinVisibleItemsCount(int count) {
         minVisibleItemsCount = count;
     }
 
+    // Labels are drawn from the atlas when it is set
+    public void setLabelAtlas(LabelAtlas atlas) {
+        labelAtlas = atlas;
+        atlas.addView(this);
+    }
+
+    // Names and widths of the labels are found once here,
+    // drawing only looks them up
     public void setAxis(Axis axis) {
         this.axis = axis;
+        names = new String[axis.size()];
+        widths = new int[axis.size()];
+
+        for (int i = 0; i < names.length; i++) {
+            String name = axis.shortName(i);
+            textPaint.getTextBounds(name, 0, name.length(), rect);
+            names[i] = name;
+            widths[i] = rect.width();
+        }
     }
 
     boolean isPowerOfTwo(int x) {
@@ -106,23 +129,14 @@ public class HorizontalAxisView extends View
     }
 
     private void startAnimator() {
-        animator.cancel();
-        animator.start();
+        tween.start();
     }
 
-    private void updatePoints() {
-        if (getWidth() == 0) {
-            return;
-        }
-        if (scaledPoints == null) {
-            scaledPoints = new ScaledPoint[axis.size()];
-            for (int i = 0; i < scaledPoints.length; i++) {
-                scaledPoints[i] = new ScaledPoint();
-                scaledPoints[i].name = axis.values[i].shortName;
-            }
-        }
-
-        float stepFraction = navigationBounds.getWidth() / minVisibleItemsCount;
+    // Labels are shown at the multiples of a power of two step. The step
+    // and the alpha of the labels in the middle of it are all that change
+    // with the bounds, so nothing depends on the length of the axis
+    private void updateStep() {
+        float stepFraction = (boundsRight - boundsLeft + 1) / minVisibleItemsCount;
         int step = (int)Math.ceil(stepFraction);
 
         // step must be a power of 2
@@ -147,123 +161,92 @@ public class HorizontalAxisView extends View
             }
         }
         if (currentStep != step) {
-            animator.cancel();
+            tween.cancel();
             currentStep = step;
         }
         currentScale = scale;
 
-        float scaleX = getWidth() / navigationBounds.getWidth();
-
-        for (int i = 0; i < axis.size(); i++) {
-            ScaledPoint point = scaledPoints[i];
-            if (step > 1 && i % (step / 2) != 0) {
-                point.alpha = 0;
-                continue;
-            }
-
-            float alpha;
-
-            if (i % step == 0) {
-                alpha = 1;
-            }
-            else {
-                if (animator.isStarted()) {
-                    alpha = point.alpha;
-                }
-                else {
-                    if (scale < SCALE_THRESHOLD) {
-                        alpha = 0;
-                    }
-                    else {
-                        alpha = 1;
-                    }
-                }
-            }
-
-            point.alpha = (int)(255 * alpha);
-            point.position = i * scaleX + horizontalPadding;
+        if (!tween.isRunning()) {
+            halfStepAlpha = scale < SCALE_THRESHOLD ? 0 : 255;
         }
     }
 
-    @Override @SuppressWarnings("ConstantConditions")
+    @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (scaledPoints == null) {
-            updatePoints();
+        invalidationScheduler.onDrawn(invalidationLayer);
+
+        if (currentStep == -1) {
+            updateStep();
         }
 
         int width = getWidth();
-        float itemWidth = width / navigationBounds.getWidth();
-        float axisWidth = itemWidth * scaledPoints.length;
-        float left = axisWidth * (navigationBounds.left / scaledPoints.length);
+        float scaleX = width / (boundsRight - boundsLeft + 1);
+        float originX = horizontalPadding - scaleX * boundsLeft;
+        int step = currentStep;
+        int labelStep = step > 1 ? step / 2 : 1;
+        int lastIndex = names.length - 1;
+
+        // labels which start left of the first visible point
+        // may still be partly shown
+        int first = (int)Math.max(boundsLeft, 0) / labelStep * labelStep;
+        while (first - labelStep >= 0 && originX + scaleX * (first - labelStep) +
+                widths[first - labelStep] >= 0) {
+            first -= labelStep;
+        }
 
         float y = getHeight() / 2f;
-        for (ScaledPoint point: scaledPoints) {
-            if (point.alpha == 0) {
-                continue;
-            }
-            float x = point.position - left;
-
-            if (x + getTextSize(point.name) < 0) {
+        for (int i = first; i <= lastIndex; i += labelStep) {
+            int alpha = i % step == 0 ? 255 : halfStepAlpha;
+            if (alpha == 0) {
                 continue;
             }
+            float x = originX + scaleX * i;
 
             if (x > width) {
                 break;
             }
 
-            textPaint.setAlpha(point.alpha);
-            canvas.drawText(point.name, x, y, textPaint);
-        }
-    }
+            if (x + widths[i] < 0) {
+                continue;
+            }
 
-    @SuppressWarnings("ConstantConditions")
-    private int getTextSize(String text) {
-        if (!textSizes.containsKey(text)) {
-            textPaint.getTextBounds(text, 0, text.length(), rect);
-            textSizes.put(text, rect.width());
+            textPaint.setAlpha(alpha);
+            if (labelAtlas != null) {
+                labelAtlas.draw(canvas, names[i], x, y, textPaint);
+            }
+            else {
+                canvas.drawText(names[i], x, y, textPaint);
+            }
         }
-        return textSizes.get(text);
     }
 
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        navigationBounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
 
         switch (state) {
             case MOVING_LEFT_BOUND:
             case MOVING_RIGHT_BOUND:
-                updatePoints();
+                updateStep();
                 break;
             case IDLE:
-                updatePoints();
+                updateStep();
                 break;
         }
 
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     @Override
     public void onNavigationStateChanged(NavigationState state) {
         this.state = state;
 
-        invalidate();
-    }
-
-    private static class ScaledPoint {
-        public String name;
-        public int alpha;
-        public float position;
-
-        @Override
-        public String toString() {
-            return "ScaledPoint{" +
-                    "name='" + name + '\'' +
-                    ", alpha=" + alpha +
-                    ", position=" + position +
-                    '}';
-        }
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
 }
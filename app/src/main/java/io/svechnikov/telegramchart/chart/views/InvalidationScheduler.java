@@ -0,0 +1,81 @@
+package io.svechnikov.telegramchart.chart.views;
+
+import android.view.View;
+
+// Collects invalidation requests of the layers of a chart. A layer is
+// invalidated on the first request after it has been drawn, later requests
+// only add their reasons until it is drawn again. So a layer is redrawn
+// once per frame however many changes have touched it.
+// The counters show how many requests have been absorbed this way
+public class InvalidationScheduler {
+
+    // Every view of MainChartView has a fixed slot
+    public static final int LAYER_PLOT = 0;
+    public static final int LAYER_SELECTION = 1;
+    public static final int LAYER_HORIZONTAL_AXIS = 2;
+    public static final int LAYER_VERTICAL_LINES = 3;
+    public static final int LAYER_FIRST_VERTICAL_LABELS = 4;
+    public static final int LAYER_SECOND_VERTICAL_LABELS = 5;
+    public static final int LAYERS_COUNT = 6;
+
+    public static final int REASON_BOUNDS = 1;
+    public static final int REASON_Y_RANGE = 1 << 1;
+    public static final int REASON_VISIBILITY = 1 << 2;
+    public static final int REASON_SELECTION = 1 << 3;
+
+    private final View[] views = new View[LAYERS_COUNT];
+    private final int[] dirtyReasons = new int[LAYERS_COUNT];
+    private final int[] invalidationsCounts = new int[LAYERS_COUNT];
+    private int requestsCount;
+    private int invalidationsCount;
+
+    // Called once for every layer when it is created
+    public void setLayer(int layer, View view) {
+        views[layer] = view;
+    }
+
+    public void invalidate(int layer, int reason) {
+        requestsCount++;
+        if (dirtyReasons[layer] == 0) {
+            invalidationsCount++;
+            invalidationsCounts[layer]++;
+            views[layer].invalidate();
+        }
+        dirtyReasons[layer] |= reason;
+    }
+
+    // Must be called by the layer's view when it draws itself
+    public void onDrawn(int layer) {
+        dirtyReasons[layer] = 0;
+    }
+
+    // Reasons of the requests since the layer was drawn, 0 if there were none
+    public int getDirtyReasons(int layer) {
+        return dirtyReasons[layer];
+    }
+
+    public int getRequestsCount() {
+        return requestsCount;
+    }
+
+    public int getInvalidationsCount() {
+        return invalidationsCount;
+    }
+
+    public int getInvalidationsCount(int layer) {
+        return invalidationsCounts[layer];
+    }
+
+    // Requests which came when the layer was already going to be redrawn
+    public int getRedundantRequestsCount() {
+        return requestsCount - invalidationsCount;
+    }
+
+    public void resetCounters() {
+        requestsCount = 0;
+        invalidationsCount = 0;
+        for (int i = 0; i < LAYERS_COUNT; i++) {
+            invalidationsCounts[i] = 0;
+        }
+    }
+}
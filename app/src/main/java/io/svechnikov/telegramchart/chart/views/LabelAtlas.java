@@ -0,0 +1,195 @@
+package io.svechnikov.telegramchart.chart.views;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.PorterDuff;
+import android.graphics.Rect;
+import android.text.TextPaint;
+import android.view.View;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import io.svechnikov.telegramchart.R;
+
+// Axis labels rasterized once into one shared alpha-only bitmap. Drawing
+// a part of it fills the part with the color and alpha of the given paint,
+// so the same label is reused by every axis of every chart whatever its color,
+// and no text is shaped while the charts are moved.
+// The bitmap is split into rows of the text height and every row into units,
+// a label takes the units its width needs. When there is no room left
+// the least recently drawn labels are evicted.
+// Labels are requested from the main thread only
+public class LabelAtlas {
+
+    private static final int ATLAS_WIDTH = 1024;
+    private static final int ATLAS_HEIGHT = 512;
+    private static final int UNIT_WIDTH = 8;
+    private static final int UNITS_PER_ROW = ATLAS_WIDTH / UNIT_WIDTH;
+
+    private final Paint textPaint;
+    private final Canvas canvas = new Canvas();
+    private final Rect rect = new Rect();
+    private final Rect src = new Rect();
+    private final Rect dst = new Rect();
+    // in the order of access, the first label is the least recently drawn
+    private final Map<String, Label> labels = new LinkedHashMap<>(64, 0.75f, true);
+    private final List<View> views = new ArrayList<>();
+
+    private final int rowHeight;
+    // by row, then by unit
+    private final boolean[][] usedUnits;
+    private Bitmap bitmap;
+
+    public LabelAtlas(Context context) {
+        textPaint = new TextPaint(TextPaint.ANTI_ALIAS_FLAG);
+        textPaint.setSubpixelText(true);
+        textPaint.setColor(Color.BLACK);
+        textPaint.setTextSize(context.getResources().getDimensionPixelSize(
+                R.dimen.chart_main_chart_axis_text_size));
+
+        Paint.FontMetrics metrics = textPaint.getFontMetrics();
+        // a pixel around the bounds for the antialiasing
+        // and some more for glyphs going out of the font's bounds
+        rowHeight = (int)Math.ceil(metrics.bottom - metrics.top) + 4;
+        usedUnits = new boolean[ATLAS_HEIGHT / rowHeight][UNITS_PER_ROW];
+    }
+
+    // Views drawing from the atlas. Their display lists may still refer
+    // to an evicted label, so they are redrawn after an eviction
+    public void addView(View view) {
+        if (!views.contains(view)) {
+            views.add(view);
+        }
+    }
+
+    // Width of the label's bounds, as Paint.getTextBounds() would give it
+    public int getWidth(String text) {
+        return getLabel(text).width;
+    }
+
+    // Same as canvas.drawText(text, x, y, paint) for a paint
+    // with the axis text size, the position is rounded to whole pixels
+    public void draw(Canvas target, String text, float x, float y, Paint paint) {
+        Label label = getLabel(text);
+        if (label.row == -1) {
+            return;
+        }
+        int left = Math.round(x) + label.left;
+        int top = Math.round(y) + label.top;
+        src.set(label.unit * UNIT_WIDTH,
+                label.row * rowHeight,
+                label.unit * UNIT_WIDTH + label.bitmapWidth,
+                label.row * rowHeight + label.bitmapHeight);
+        dst.set(left, top, left + label.bitmapWidth, top + label.bitmapHeight);
+        target.drawBitmap(bitmap, src, dst, paint);
+    }
+
+    private Label getLabel(String text) {
+        Label label = labels.get(text);
+
+        if (label == null) {
+            label = createLabel(text);
+            labels.put(text, label);
+        }
+        return label;
+    }
+
+    private Label createLabel(String text) {
+        textPaint.getTextBounds(text, 0, text.length(), rect);
+
+        Label label = new Label();
+        label.width = rect.width();
+        label.left = rect.left - 1;
+        label.top = rect.top - 1;
+        label.bitmapWidth = rect.width() + 2;
+        label.bitmapHeight = rect.height() + 2;
+
+        if (rect.isEmpty() ||
+                usedUnits.length == 0 ||
+                label.bitmapWidth > ATLAS_WIDTH ||
+                label.bitmapHeight > rowHeight) {
+            return label;
+        }
+        int units = (label.bitmapWidth + UNIT_WIDTH - 1) / UNIT_WIDTH;
+        boolean evicted = false;
+        while (!allocate(label, units)) {
+            evictEldest();
+            evicted = true;
+        }
+        if (evicted) {
+            for (int i = 0; i < views.size(); i++) {
+                views.get(i).invalidate();
+            }
+        }
+
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(ATLAS_WIDTH,
+                    usedUnits.length * rowHeight, Bitmap.Config.ALPHA_8);
+        }
+        int left = label.unit * UNIT_WIDTH;
+        int top = label.row * rowHeight;
+        canvas.setBitmap(bitmap);
+        canvas.save();
+        canvas.clipRect(left, top, left + units * UNIT_WIDTH, top + rowHeight);
+        // the units may keep the pixels of an evicted label
+        canvas.drawColor(Color.TRANSPARENT, PorterDuff.Mode.CLEAR);
+        canvas.drawText(text, left - label.left, top - label.top, textPaint);
+        canvas.restore();
+        canvas.setBitmap(null);
+        return label;
+    }
+
+    // Finds the first run of free units long enough for the label
+    private boolean allocate(Label label, int units) {
+        for (int row = 0; row < usedUnits.length; row++) {
+            boolean[] used = usedUnits[row];
+            int free = 0;
+            for (int unit = 0; unit < UNITS_PER_ROW; unit++) {
+                free = used[unit] ? 0 : free + 1;
+                if (free == units) {
+                    int first = unit - units + 1;
+                    for (int i = first; i <= unit; i++) {
+                        used[i] = true;
+                    }
+                    label.row = row;
+                    label.unit = first;
+                    label.units = units;
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    private void evictEldest() {
+        Iterator<Label> iterator = labels.values().iterator();
+        Label label = iterator.next();
+        iterator.remove();
+
+        if (label.row != -1) {
+            boolean[] used = usedUnits[label.row];
+            for (int i = label.unit; i < label.unit + label.units; i++) {
+                used[i] = false;
+            }
+        }
+    }
+
+    private static class Label {
+        int width;
+        int left;
+        int top;
+        int bitmapWidth;
+        int bitmapHeight;
+        // -1 if the label has nothing to draw
+        int row = -1;
+        int unit;
+        int units;
+    }
+}
@@ -1,7 +1,5 @@
 package io.svechnikov.telegramchart.chart.views;
 
-import android.animation.Animator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
@@ -25,21 +23,16 @@ import android.widget.TextSwitcher;
 import android.widget.TextView;
 import android.widget.ViewSwitcher;
 
-import java.util.ArrayList;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-
 import androidx.annotation.Nullable;
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.data.Entity;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.data.ValueLabels;
 
 public class SelectedPointView extends LinearLayout {
 
     private SelectedPoint selectedPoint;
     private TextSwitcher title;
-    private boolean animationCanceled;
     private boolean showing;
     private boolean showAfterMeasure;
     private final Paint backgroundPaint = new Paint();
@@ -53,12 +46,16 @@ public class SelectedPointView extends LinearLayout {
     private int currentEntitiesCount = -1;
     private final int rowTopMargin;
     private final int textColor;
-    private final ValueAnimator visibilityAnimator;
-    private final ValueAnimator translationAnimator;
+    private Tween visibilityTween;
+    private Tween translationTween;
+    private float translationFrom;
+    private float translationTo;
     private float pendingTranslation;
     private boolean wasShown;
-    private Map<Entity, TextSwitcher> viewValues = new HashMap<>();
-    private Map<Entity, TextView> viewValuesPercent = new HashMap<>();
+    // indexed by Entity.index
+    private TextSwitcher[] viewValues = new TextSwitcher[0];
+    private TextView[] viewValuesPercent = new TextView[0];
+    private final ValueLabels valueLabels = new ValueLabels();
     private final int textSize;
     private float prevX;
     private boolean hasPercentValues;
@@ -113,12 +110,14 @@ public class SelectedPointView extends LinearLayout {
     };
 
     private void animateTranslation(float translation) {
-        if (translationAnimator.isRunning()) {
+        if (translationTween.isRunning()) {
             pendingTranslation = translation;
         }
         else {
-            translationAnimator.setFloatValues(getTranslationX(), translation);
-            translationAnimator.start();
+            translationFrom = getTranslationX();
+            translationTo = translation;
+            pendingTranslation = -1;
+            translationTween.start();
         }
     }
 
@@ -195,72 +194,37 @@ public class SelectedPointView extends LinearLayout {
                 R.dimen.chart_selected_point_stroke_width);
 
         setVisibility(GONE);
+    }
 
-        visibilityAnimator = ValueAnimator.ofFloat();
-        visibilityAnimator
-                .addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-                    @Override
-                    public void onAnimationUpdate(ValueAnimator animation) {
-                        setAlpha((float)animation.getAnimatedValue());
-                    }
-                });
-        visibilityAnimator.addListener(new Animator.AnimatorListener() {
+    // setAlpha() and setTranslationX() invalidate the view by themselves
+    public void setAnimationClock(AnimationClock clock) {
+        visibilityTween = new Tween(clock, 300, null, new Tween.Listener() {
             @Override
-            public void onAnimationStart(Animator animation) {
-                animationCanceled = false;
+            public void onTweenUpdate(Tween tween) {
+                setAlpha(tween.getAnimatedFraction());
             }
 
             @Override
-            public void onAnimationEnd(Animator animation) {
-                if (!animationCanceled) {
-                    if (getAlpha() == 0) {
-                        setVisibility(GONE);
-                    }
+            public void onTweenEnd(Tween tween) {
+                if (getAlpha() == 0) {
+                    setVisibility(GONE);
                 }
             }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                animationCanceled = true;
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-
-            }
         });
 
-        translationAnimator = ValueAnimator.ofFloat();
-        translationAnimator.setDuration(100);
-        translationAnimator
-                .addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-                    @Override
-                    public void onAnimationUpdate(ValueAnimator animation) {
-                        setTranslationX((float)animation.getAnimatedValue());
-                    }
-                });
-        translationAnimator.addListener(new Animator.AnimatorListener() {
+        translationTween = new Tween(clock, 100, null, new Tween.Listener() {
             @Override
-            public void onAnimationStart(Animator animation) {
-                pendingTranslation = -1;
+            public void onTweenUpdate(Tween tween) {
+                setTranslationX(translationFrom +
+                        (translationTo - translationFrom) * tween.getAnimatedFraction());
             }
 
             @Override
-            public void onAnimationEnd(Animator animation) {
+            public void onTweenEnd(Tween tween) {
                 if (pendingTranslation > -1) {
                     animateTranslation(pendingTranslation);
                 }
             }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-                pendingTranslation = -1;
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-
-            }
         });
     }
 
@@ -269,8 +233,7 @@ public class SelectedPointView extends LinearLayout {
     }
 
     private void animateShow() {
-        visibilityAnimator.setFloatValues(0, 1);
-        visibilityAnimator.start();
+        visibilityTween.start();
     }
 
     private void animateHide() {
@@ -278,8 +241,7 @@ public class SelectedPointView extends LinearLayout {
 
         // todo postpone setting TYPE_LAYER_HARDWARE on MainPlotView
         // while this animation is running
-        /*visibilityAnimator.setFloatValues(1, 0);
-        visibilityAnimator.start();*/
+        /*visibilityTween.start();*/
     }
 
     @Override
@@ -376,13 +338,13 @@ public class SelectedPointView extends LinearLayout {
         }
     }
 
-    @SuppressWarnings("ConstantConditions")
     private void fillEntitiesContainer(boolean animate) {
-        List<Entity> entities = new ArrayList<>(selectedPoint.values.keySet());
-
-        for (Entity entity: entities) {
-            String value = String.valueOf(selectedPoint.values.get(entity));
-            TextSwitcher switcher = viewValues.get(entity);
+        for (int i = 0; i < selectedPoint.entities.length; i++) {
+            if (!selectedPoint.contains(i)) {
+                continue;
+            }
+            String value = valueLabels.get(selectedPoint.values[i]);
+            TextSwitcher switcher = viewValues[i];
             if (animate) {
                 switcher.setText(value);
             }
@@ -391,21 +353,25 @@ public class SelectedPointView extends LinearLayout {
             }
 
             if (hasPercentValues) {
-                String percentValue = selectedPoint.percentValues.get(entity) + "%";
-                viewValuesPercent.get(entity).setText(percentValue);
+                viewValuesPercent[i].setText(
+                        valueLabels.getPercent(selectedPoint.percentValues[i]));
             }
         }
     }
 
     private void createEntitiesContainer() {
-        currentEntitiesCount = selectedPoint.values.size();
+        currentEntitiesCount = selectedPoint.size();
 
         int childCount = getChildCount();
         for (int i = 1; i < childCount; i++) {
             removeViewAt(1);
         }
 
-        viewValues.clear();
+        int entitiesCount = selectedPoint.entities.length;
+        if (viewValues.length != entitiesCount) {
+            viewValues = new TextSwitcher[entitiesCount];
+            viewValuesPercent = new TextView[entitiesCount];
+        }
 
         LinearLayout.LayoutParams lineLayoutParams =
                 new LinearLayout.LayoutParams(
@@ -419,7 +385,11 @@ public class SelectedPointView extends LinearLayout {
                     .getDimensionPixelSize(
                             R.dimen.chart_selected_point_percent_padding_right);
         }
-        for (final Entity entity: selectedPoint.values.keySet()) {
+        for (int i = 0; i < entitiesCount; i++) {
+            if (!selectedPoint.contains(i)) {
+                continue;
+            }
+            final Entity entity = selectedPoint.entities[i];
             TextView percentValueView = null;
 
             if (hasPercentValues) {
@@ -436,7 +406,7 @@ public class SelectedPointView extends LinearLayout {
                         ViewGroup.LayoutParams.WRAP_CONTENT));
                 percentValueView.setGravity(Gravity.RIGHT);
                 percentValueView.setSingleLine(true);
-                viewValuesPercent.put(entity, percentValueView);
+                viewValuesPercent[i] = percentValueView;
                 percentValueView.setText(null);
             }
 
@@ -480,7 +450,7 @@ public class SelectedPointView extends LinearLayout {
             valueView.setInAnimation(inAnimation);
             valueView.setOutAnimation(outAnimation);
 
-            viewValues.put(entity, valueView);
+            viewValues[i] = valueView;
 
             RelativeLayout container = new RelativeLayout(getContext());
             if (percentValueView != null) {
@@ -514,7 +484,7 @@ public class SelectedPointView extends LinearLayout {
 
     public void hide() {
         pendingTranslation = -1;
-        translationAnimator.cancel();
+        translationTween.cancel();
         removeCallbacks(showRunnable);
         removeCallbacks(hideRunnable);
         post(hideRunnable);
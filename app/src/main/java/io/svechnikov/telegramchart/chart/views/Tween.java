@@ -0,0 +1,93 @@
+package io.svechnikov.telegramchart.chart.views;
+
+import android.animation.TimeInterpolator;
+import android.view.View;
+
+// Animation advanced by AnimationClock. It is created once and restarted
+// when needed. The target isn't invalidated by the tween itself, the clock
+// does it once per frame after all the tweens have been advanced
+public class Tween {
+
+    public interface Listener {
+        void onTweenUpdate(Tween tween);
+        // Not called when the tween is canceled
+        void onTweenEnd(Tween tween);
+    }
+
+    // The same curve ValueAnimator uses by default
+    private static final TimeInterpolator ACCELERATE_DECELERATE =
+            new TimeInterpolator() {
+                @Override
+                public float getInterpolation(float input) {
+                    return (float)(Math.cos((input + 1) * Math.PI) / 2) + 0.5f;
+                }
+            };
+
+    private final AnimationClock clock;
+    private final long duration;
+    private final View target;
+    private final Listener listener;
+    private long startTime;
+    private float fraction;
+    private boolean running;
+
+    // target may be null when the listener changes view properties
+    // which invalidate the view by themselves
+    public Tween(AnimationClock clock,
+                 long duration,
+                 View target,
+                 Listener listener) {
+        this.clock = clock;
+        this.duration = duration;
+        this.target = target;
+        this.listener = listener;
+    }
+
+    // Starts from the beginning, also when the tween is running
+    public void start() {
+        startTime = -1;
+        fraction = 0;
+        if (!running) {
+            running = true;
+            clock.add(this);
+        }
+    }
+
+    public void cancel() {
+        if (running) {
+            running = false;
+            clock.remove(this);
+        }
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public float getAnimatedFraction() {
+        return ACCELERATE_DECELERATE.getInterpolation(fraction);
+    }
+
+    View getTarget() {
+        return target;
+    }
+
+    // Returns false when the tween has reached its end
+    boolean advance(long frameTimeNanos) {
+        // the time is counted from the first frame after start()
+        if (startTime == -1) {
+            startTime = frameTimeNanos;
+        }
+        long elapsed = (frameTimeNanos - startTime) / 1000000;
+        float duration = this.duration * clock.getDurationScale();
+        fraction = duration == 0 ? 1 : Math.min(elapsed / duration, 1);
+
+        listener.onTweenUpdate(this);
+        return fraction < 1;
+    }
+
+    void finish() {
+        running = false;
+        listener.onTweenEnd(this);
+    }
+}
@@ -15,21 +15,23 @@ import android.view.ViewGroup;
 import android.widget.FrameLayout;
 import android.widget.RelativeLayout;
 
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.NavigationBoundsListener;
 import io.svechnikov.telegramchart.chart.NavigationStateListener;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.data.StackedTotals;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
 import io.svechnikov.telegramchart.chart.views.HorizontalAxisView;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+import io.svechnikov.telegramchart.chart.views.LabelAtlas;
 import io.svechnikov.telegramchart.chart.views.SelectedPointView;
 import io.svechnikov.telegramchart.chart.views.SelectedPointViewCallback;
+import io.svechnikov.telegramchart.chart.views.verticalaxis.NiceRange;
 import io.svechnikov.telegramchart.chart.views.verticalaxis.VerticalAxisCoordinator;
 import io.svechnikov.telegramchart.chart.views.verticalaxis.VerticalAxisLabelsView;
 import io.svechnikov.telegramchart.chart.views.verticalaxis.VerticalAxisLinesView;
@@ -41,10 +43,15 @@ public class MainChartView extends RelativeLayout
     private MainPlotView plotView;
     private final HorizontalAxisView horizontalAxisView;
     private ChartData chartData;
-    private NavigationBounds currentBounds;
+    private StackedTotals stackedTotals;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private int verticalItemsCount = -1;
-    private final Map<Entity, Integer> minValuesByEntity = new HashMap<>();
-    private final Map<Entity, Integer> maxValuesByEntity = new HashMap<>();
+    private int[] minValuesByEntity;
+    private int[] maxValuesByEntity;
+    // by Entity.index for the y-scaled charts, the first one otherwise
+    private NiceRange[] niceRanges;
     private final Paint topGradientPaint = new Paint();
     private final int chartBackground;
     private final int topPadding;
@@ -52,6 +59,11 @@ public class MainChartView extends RelativeLayout
     private VerticalAxisLabelsView secondVerticalLabelsView;
     private boolean activeFirstVerticalAxis;
     private SelectedPointView selectedPointView;
+    private SelectedPointOverlayView selectedPointOverlayView;
+    private AnimationClock animationClock;
+    private LabelAtlas labelAtlas;
+    private final InvalidationScheduler invalidationScheduler =
+            new InvalidationScheduler();
 
     public MainChartView(Context context) {
         this(context, null);
@@ -70,6 +82,8 @@ public class MainChartView extends RelativeLayout
         setLayerType(LAYER_TYPE_HARDWARE, null);
 
         horizontalAxisView = createHorizontalAxis();
+        horizontalAxisView.setInvalidationScheduler(invalidationScheduler,
+                InvalidationScheduler.LAYER_HORIZONTAL_AXIS);
 
         Resources r = getResources();
         topPadding = r.getDimensionPixelSize(
@@ -89,6 +103,7 @@ public class MainChartView extends RelativeLayout
     private SelectedPointView createSelectedPointView() {
         SelectedPointView view = new SelectedPointView(getContext());
         view.setHasPercentValues(chartData.type == ChartData.TYPE_PERCENTAGE);
+        view.setAnimationClock(animationClock);
         FrameLayout.LayoutParams lp =
                 new FrameLayout.LayoutParams(
                         ViewGroup.LayoutParams.WRAP_CONTENT,
@@ -114,6 +129,11 @@ public class MainChartView extends RelativeLayout
         return Color.argb(0, red, green, blue);
     }
 
+    // Counters of the requested and the actual invalidations
+    public InvalidationScheduler getInvalidationScheduler() {
+        return invalidationScheduler;
+    }
+
     public int getSelectedPointIndex() {
         return plotView.getSelectedPointIndex();
     }
@@ -122,6 +142,23 @@ public class MainChartView extends RelativeLayout
         plotView.setSelectedPointIndex(index);
     }
 
+    public void setLabelAtlas(LabelAtlas labelAtlas) {
+        this.labelAtlas = labelAtlas;
+        horizontalAxisView.setLabelAtlas(labelAtlas);
+        if (firstVerticalLabelsView != null) {
+            firstVerticalLabelsView.setLabelAtlas(labelAtlas);
+        }
+        if (secondVerticalLabelsView != null) {
+            secondVerticalLabelsView.setLabelAtlas(labelAtlas);
+        }
+    }
+
+    // must be set before the chart data
+    public void setAnimationClock(AnimationClock animationClock) {
+        this.animationClock = animationClock;
+        horizontalAxisView.setAnimationClock(animationClock);
+    }
+
     public void setVerticalItemsCount(int count) {
         verticalItemsCount = count;
     }
@@ -131,11 +168,12 @@ public class MainChartView extends RelativeLayout
     }
 
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        currentBounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
 
-        horizontalAxisView.onNavigationBoundsChanged(bounds);
-        plotView.onNavigationBoundsChanged(bounds);
+        horizontalAxisView.onNavigationBoundsChanged(left, right);
+        plotView.onNavigationBoundsChanged(left, right);
 
         updateMaxValue();
     }
@@ -149,40 +187,43 @@ public class MainChartView extends RelativeLayout
         int globalMaxValue = Integer.MIN_VALUE;
         int globalMinValue = Integer.MAX_VALUE;
 
-        int left = Math.max((int)currentBounds.left - 1, 0);
-        int right = Math.min((int)Math.ceil(currentBounds.right) + 1,
+        int left = Math.max((int)boundsLeft - 1, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + 1,
                 chartData.axis.size());
 
         for (Entity entity: chartData.entities) {
             if (!entity.isVisible()) {
                 continue;
             }
-            int maxValue = Integer.MIN_VALUE;
-            int minValue = Integer.MAX_VALUE;
-            for (int i = left; i < right; i++) {
-                int value = entity.values[i];
-                maxValue = Math.max(maxValue, value);
-                minValue = Math.min(minValue, value);
-            }
+            int maxValue = entity.rangeMax(left, right - 1);
+            int minValue = entity.rangeMin(left, right - 1);
 
             globalMaxValue = Math.max(globalMaxValue, maxValue);
             globalMinValue = Math.min(globalMinValue, minValue);
 
             if (chartData.type == ChartData.TYPE_Y_SCALED) {
+                NiceRange range = niceRanges[entity.index];
+                range.update(minValue, maxValue);
+                maxValue = range.getMax();
+                minValue = range.getMin();
+
                 ((ScaledLinePlotView)plotView)
                         .updateValues(entity, minValue, maxValue);
             }
 
-            maxValuesByEntity.put(entity, maxValue);
-            minValuesByEntity.put(entity, minValue);
+            maxValuesByEntity[entity.index] = maxValue;
+            minValuesByEntity[entity.index] = minValue;
         }
 
         if (chartData.type != ChartData.TYPE_Y_SCALED) {
             if (globalMaxValue != Integer.MIN_VALUE) {
+                NiceRange range = niceRanges[0];
+                range.update(globalMinValue, globalMaxValue);
+
                 verticalAxisCoordinator
-                        .updateValues(globalMinValue, globalMaxValue);
+                        .updateValues(range.getMin(), range.getMax());
                 ((NotScaledLinePlotView)plotView)
-                        .updateValues(globalMinValue, globalMaxValue);
+                        .updateValues(range.getMin(), range.getMax());
             }
         }
         else if (!chartData.entities.isEmpty()) {
@@ -190,13 +231,14 @@ public class MainChartView extends RelativeLayout
             Entity first = entities.get(0);
             Entity second = entities.get(1);
 
-            Integer firstMin = minValuesByEntity.get(first);
-            Integer firstMax = maxValuesByEntity.get(first);
+            // values are up to date for visible entities only
+            int firstMin = minValuesByEntity[first.index];
+            int firstMax = maxValuesByEntity[first.index];
 
-            Integer secondMin = minValuesByEntity.get(second);
-            Integer secondMax = maxValuesByEntity.get(second);
+            int secondMin = minValuesByEntity[second.index];
+            int secondMax = maxValuesByEntity[second.index];
 
-            if (first.isVisible() && firstMin != null && firstMax != null) {
+            if (first.isVisible()) {
                 verticalAxisCoordinator.updateValues(
                         firstMin, firstMax, activeFirstVerticalAxis);
                 activeFirstVerticalAxis = true;
@@ -208,7 +250,7 @@ public class MainChartView extends RelativeLayout
                     secondVerticalLabelsView.forceValues(-1, -1);
                 }
             }
-            else if (second.isVisible() && secondMin != null && secondMax != null) {
+            else if (second.isVisible()) {
                 secondVerticalLabelsView.forceValues(-1, -1);
                 verticalAxisCoordinator.updateValues(secondMin,
                         secondMax, !activeFirstVerticalAxis);
@@ -218,22 +260,16 @@ public class MainChartView extends RelativeLayout
     }
 
     private void updateStackedMaxValue() {
-        int maxValue = 0;
+        // only does work when an entity has been toggled since the last call
+        stackedTotals.sync();
 
-        int left = Math.max((int)currentBounds.left - 1, 0);
-        int right = Math.min((int)Math.ceil(currentBounds.right) + 1,
+        int left = Math.max((int)boundsLeft - 1, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + 1,
                 chartData.axis.size());
 
-        for (int i = left; i < right; i++) {
-            int value = 0;
-            for (Entity entity: chartData.entities) {
-                if (!entity.isVisible()) {
-                    continue;
-                }
-                value += entity.values[i];
-            }
-            maxValue = Math.max(value, maxValue);
-        }
+        NiceRange range = niceRanges[0];
+        range.update(0, Math.max(stackedTotals.max(left, right - 1), 0));
+        int maxValue = range.getMax();
 
         verticalAxisCoordinator.updateValues(-1, maxValue);
 
@@ -279,8 +315,21 @@ public class MainChartView extends RelativeLayout
     public void setChartData(ChartData chartData) {
         this.chartData = chartData;
 
+        minValuesByEntity = new int[chartData.entities.size()];
+        maxValuesByEntity = new int[chartData.entities.size()];
+
         plotView = createPlotView();
 
+        if (chartData.type == ChartData.TYPE_STACKED ||
+                chartData.type == ChartData.TYPE_BAR) {
+            stackedTotals = new StackedTotals(chartData.entities,
+                    chartData.axis.size());
+            ((StackedPlotView)plotView).setStackedTotals(stackedTotals);
+        }
+
+        plotView.setAnimationClock(animationClock);
+        plotView.setInvalidationScheduler(invalidationScheduler,
+                InvalidationScheduler.LAYER_PLOT);
         plotView.setChartData(chartData);
 
         createVerticalAxis();
@@ -293,16 +342,25 @@ public class MainChartView extends RelativeLayout
             @Override
             public void setSelectedPoint(SelectedPoint selectedPoint) {
                 selectedPointView.setPoint(selectedPoint);
+                if (selectedPointOverlayView != null) {
+                    selectedPointOverlayView.setPoint(selectedPoint);
+                }
             }
 
             @Override
             public void show(boolean animate) {
                 selectedPointView.show(animate);
+                if (selectedPointOverlayView != null) {
+                    selectedPointOverlayView.onPointChanged();
+                }
             }
 
             @Override
             public void hide() {
                 selectedPointView.hide();
+                if (selectedPointOverlayView != null) {
+                    selectedPointOverlayView.onPointChanged();
+                }
             }
         });
 
@@ -334,6 +392,15 @@ public class MainChartView extends RelativeLayout
                         ViewGroup.LayoutParams.MATCH_PARENT);
         lp.addRule(RelativeLayout.ABOVE, R.id.horizontalAxisView);
         addView(plot, lp);
+
+        // bars and areas change with the selection, so they draw it themselves
+        if (plot instanceof NotScaledLinePlotView ||
+                plot instanceof ScaledLinePlotView) {
+            selectedPointOverlayView = new SelectedPointOverlayView(getContext());
+            selectedPointOverlayView.setInvalidationScheduler(invalidationScheduler,
+                    InvalidationScheduler.LAYER_SELECTION);
+            addView(selectedPointOverlayView, lp);
+        }
         return (MainPlotView) plot;
     }
 
@@ -342,13 +409,23 @@ public class MainChartView extends RelativeLayout
         boolean startFromZero = type != ChartData.TYPE_LINE &&
                 type != ChartData.TYPE_Y_SCALED;
 
+        // the plots are scaled to the same round ranges as the axis
+        niceRanges = new NiceRange[chartData.entities.size()];
+        for (int i = 0; i < niceRanges.length; i++) {
+            niceRanges[i] = new NiceRange(verticalItemsCount, startFromZero);
+        }
+
         verticalAxisCoordinator = new VerticalAxisCoordinator(
-                getContext(), verticalItemsCount, startFromZero);
+                getContext(), animationClock, invalidationScheduler,
+                verticalItemsCount, startFromZero);
 
         firstVerticalLabelsView = new VerticalAxisLabelsView(getContext());
+        firstVerticalLabelsView.setLabelAtlas(labelAtlas);
         VerticalAxisLinesView linesView = new VerticalAxisLinesView(getContext());
-        verticalAxisCoordinator.addView(firstVerticalLabelsView);
-        verticalAxisCoordinator.addView(linesView);
+        verticalAxisCoordinator.addView(firstVerticalLabelsView,
+                InvalidationScheduler.LAYER_FIRST_VERTICAL_LABELS);
+        verticalAxisCoordinator.addView(linesView,
+                InvalidationScheduler.LAYER_VERTICAL_LINES);
 
         RelativeLayout.LayoutParams lp =
                 new RelativeLayout.LayoutParams(
@@ -372,8 +449,10 @@ public class MainChartView extends RelativeLayout
             firstVerticalLabelsView.setLabelsBackgroundEnabled(true);
 
             secondVerticalLabelsView = new VerticalAxisLabelsView(getContext());
+            secondVerticalLabelsView.setLabelAtlas(labelAtlas);
             secondVerticalLabelsView.setLabelsBackgroundEnabled(true);
-            verticalAxisCoordinator.addView(secondVerticalLabelsView);
+            verticalAxisCoordinator.addView(secondVerticalLabelsView,
+                    InvalidationScheduler.LAYER_SECOND_VERTICAL_LABELS);
             secondVerticalLabelsView.setAlignRight(true);
             secondVerticalLabelsView.setColor(chartData.entities.get(1).color);
             addView(secondVerticalLabelsView, lp);
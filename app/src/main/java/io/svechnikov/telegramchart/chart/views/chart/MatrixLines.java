@@ -0,0 +1,41 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.graphics.Matrix;
+
+// Maps segments kept in data space (x is the point index, y is the value)
+// to the screen with one Matrix call. The canvas itself is not transformed,
+// so the stroke width stays the same whatever the scales are
+class MatrixLines {
+
+    private final Matrix matrix = new Matrix();
+
+    // Segments between all the neighbour points in the drawLines() layout
+    static float[] segments(int[] values) {
+        float[] segments = new float[Math.max(values.length - 1, 0) * 4];
+        for (int i = 0; i < values.length - 1; i++) {
+            segments[i * 4] = i;
+            segments[i * 4 + 1] = values[i];
+            segments[i * 4 + 2] = i + 1;
+            segments[i * 4 + 3] = values[i + 1];
+        }
+        return segments;
+    }
+
+    // Maps the segments [left, right) to lines starting from linesOffset,
+    // x = originX + scaleX * index, y = originY - scaleY * value.
+    // Returns the number of floats written
+    int map(float[] segments,
+            float[] lines,
+            int linesOffset,
+            int left,
+            int right,
+            float originX,
+            float scaleX,
+            float originY,
+            float scaleY) {
+        matrix.setScale(scaleX, -scaleY);
+        matrix.postTranslate(originX, originY);
+        matrix.mapPoints(lines, linesOffset, segments, left * 4, (right - left) * 2);
+        return (right - left) * 4;
+    }
+}
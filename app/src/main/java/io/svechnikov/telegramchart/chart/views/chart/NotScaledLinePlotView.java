@@ -1,11 +1,7 @@
 package io.svechnikov.telegramchart.chart.views.chart;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -16,24 +12,30 @@ import android.view.MotionEvent;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.ScrollListener;
 import io.svechnikov.telegramchart.chart.data.Axis;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
+import io.svechnikov.telegramchart.chart.data.ExtremaPyramid;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
 import io.svechnikov.telegramchart.chart.views.SelectedPointViewCallback;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
+// All the entities share one y range. While the whole selection is moved
+// the plot is drawn from shifted tiles, which are the only cache for pans
+// here, any other frame is mapped from the data space with one Matrix
 public class NotScaledLinePlotView extends FrameLayout
         implements MainPlotView {
 
-    private NavigationBounds bounds;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private NavigationState state = NavigationState.IDLE;
     private int selectedPointIndex = -1;
     private boolean showSelectedPointWhenReady;
@@ -48,71 +50,73 @@ public class NotScaledLinePlotView extends FrameLayout
     private int nextMinValue;
     private int prevMinValue;
 
-    private ValueAnimator scaleAnimator;
+    private Tween scaleTween;
 
     private final int topPadding;
     private final int paddingHorizontal;
-    private final int selectedCircleRadius;
-
-    private final Paint selectedCirclePaint = new Paint();
-    private final Paint selectedLinePaint = new Paint();
-    private final int chartBackground;
 
     private final List<Entity> entities = new ArrayList<>();
     private final int strokeWidth;
-    private final Map<Entity, Paint> paints = new HashMap<>();
+    private Paint[] paints;
     private int elementsCount = -1;
     private boolean hasDrawn;
 
-    private boolean animationCanceled;
     private Axis horizontalAxis;
     private Entity animatedEntity;
     private float[] lines;
+    private final ReducedLines reducedLines = new ReducedLines();
+    private final MatrixLines matrixLines = new MatrixLines();
+    private float[][] dataLines;
+    private final PlotTiles tiles = new PlotTiles();
+    private boolean[] tileVisibility;
     private boolean triggerAnimationOnEntityChange = false;
     private final GestureDetector gestureDetector;
 
-    private Map<Entity, Coord[]> pointCoordsByEntity = new HashMap<>();
+    // the last drawn transform, selection coordinates are calculated from it
+    private float coordsOriginX;
+    private float coordsScaleX;
+    private float coordsOriginY;
+    private float coordsScaleY;
     private final SelectedPoint selectedPoint = new SelectedPoint();
     private final ScrollListener scrollListener = new ScrollListener();
     private SelectedPointViewCallback selectedPointViewCallback;
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
+
+    private final Tween.Listener scaleTweenListener = new Tween.Listener() {
+        @Override
+        public void onTweenUpdate(Tween tween) {
+            float fraction = tween.getAnimatedFraction();
+            currentMaxValue = (int)(prevMaxValue +
+                    (nextMaxValue - prevMaxValue) * fraction);
+            currentMinValue = (int)(prevMinValue +
+                    (nextMinValue - prevMinValue) * fraction);
+        }
 
-    private final ValueAnimator.AnimatorUpdateListener animatorUpdateListener =
-            new ValueAnimator.AnimatorUpdateListener() {
-                @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    float fraction = animation.getAnimatedFraction();
-                    currentMaxValue = (int)(prevMaxValue +
-                            (nextMaxValue - prevMaxValue) * fraction);
-                    currentMinValue = (int)(prevMinValue +
-                            (nextMinValue - prevMinValue) * fraction);
-                    invalidate();
-                }
-            };
-    private final ValueAnimator.AnimatorListener animatorListener =
-            new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    animationCanceled = false;
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    animatedEntity = null;
-                    if (!animationCanceled) {
-                        scaleAnimator = null;
-                    }
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) {
-                    animationCanceled = true;
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animation) {
+        @Override
+        public void onTweenEnd(Tween tween) {
+            animatedEntity = null;
+        }
+    };
+
+    private final PlotTiles.Renderer tileRenderer = new PlotTiles.Renderer() {
+        @Override
+        public void renderTile(Canvas canvas, float originX) {
+            float scaleX = tiles.getScaleX();
+            int lastPoint = horizontalAxis.size() - 1;
+            int left = Math.max((int)Math.floor(-originX / scaleX) - 1, 0);
+            int right = Math.min((int)Math.ceil(
+                    (PlotTiles.TILE_WIDTH - originX) / scaleX) + 1, lastPoint);
+            float originY = coordsOriginY;
 
+            for (Entity entity: entities) {
+                if (entity.isVisible()) {
+                    renderTileLines(canvas, entity, left, right,
+                            originX, scaleX, originY);
                 }
-            };
+            }
+        }
+    };
 
     public NotScaledLinePlotView(Context context) {
         this(context, null);
@@ -133,25 +137,8 @@ public class NotScaledLinePlotView extends FrameLayout
         strokeWidth = getResources().getDimensionPixelSize(
                 R.dimen.chart_main_stroke_width);
 
-        int[] style = {
-                R.attr.chartBackground,
-                R.attr.dividerColor};
-        TypedArray ta = context.obtainStyledAttributes(style);
-        chartBackground = ta.getColor(0, Color.WHITE);
-        int dividerColor = ta.getColor(1, Color.GRAY);
-        ta.recycle();
-
         paddingHorizontal = r.getDimensionPixelSize(R.dimen.chart_padding_horizontal);
 
-        selectedCirclePaint.setStyle(Paint.Style.FILL);
-        selectedLinePaint.setStyle(Paint.Style.STROKE);
-        selectedLinePaint.setStrokeWidth(r.getDimensionPixelSize(
-                R.dimen.chart_main_chart_divider_width));
-        selectedLinePaint.setColor(dividerColor);
-
-        selectedCircleRadius = r.getDimensionPixelSize(
-                R.dimen.chart_main_chart_selected_circle_radius);
-
         setBackgroundColor(Color.TRANSPARENT);
 
         gestureDetector = new GestureDetector(context, scrollListener);
@@ -192,39 +179,29 @@ public class NotScaledLinePlotView extends FrameLayout
         return selectedPointIndex;
     }
 
-    @SuppressWarnings("all")
     private void findSelectedPoint(float x) {
-        int left = (int)bounds.left;
-        float closestDistance = Float.MAX_VALUE;
-        Entity visibleEntity = null;
-        for (Entity entity: entities) {
-            if (entity.isVisible()) {
-                visibleEntity = entity;
-                break;
-            }
+        if (coordsScaleX == 0) {
+            // nothing has been drawn yet
+            return;
         }
-        Coord[] coords = pointCoordsByEntity.get(visibleEntity);
-
-        float step = coords[left + 1].x - coords[left].x;
-        float delta = coords[left].x;
-        selectedPointIndex = (int)(Math.round((x - delta) / step) + left);
+        selectedPointIndex = Math.round((x - coordsOriginX) / coordsScaleX);
 
         if (selectedPointIndex < 0 ||
-                selectedPointIndex >= horizontalAxis.values.length) {
+                selectedPointIndex >= horizontalAxis.size()) {
             selectedPointIndex = -1;
             return;
         }
 
-        if (selectedPoint.x == coords[selectedPointIndex].x) {
+        if (selectedPoint.x == coordX(selectedPointIndex)) {
             return;
         }
-        if (coords[selectedPointIndex].x < 0) {
+        if (coordX(selectedPointIndex) < 0) {
             selectedPointIndex++;
         }
-        if (coords[selectedPointIndex].x > getWidth()) {
+        if (coordX(selectedPointIndex) > getWidth()) {
             selectedPointIndex--;
         }
-        selectedPoint.x = coords[selectedPointIndex].x;
+        selectedPoint.x = coordX(selectedPointIndex);
 
         showSelectedPoint();
     }
@@ -234,26 +211,20 @@ public class NotScaledLinePlotView extends FrameLayout
         for (Entity entity: entities) {
             if (entity.isVisible()) {
                 selectedPoint.addCoordY(entity,
-                        pointCoordsByEntity.get(entity)[selectedPointIndex].y);
+                        coordY(entity, selectedPointIndex));
                 selectedPoint.addValue(entity,
                         entity.values[selectedPointIndex]);
             }
         }
-        if (selectedPoint.coordsY.isEmpty()) {
+        if (selectedPoint.isEmpty()) {
             showSelectedPointWhenReady = false;
             resetSelectedPoint();
             return;
         }
         selectedPoint.title =
-                horizontalAxis.values[selectedPointIndex].selectedName;
+                horizontalAxis.selectedName(selectedPointIndex);
         selectedPointViewCallback.show(!showSelectedPointWhenReady);
         showSelectedPointWhenReady = false;
-        // on some devices there might be blank areas
-        // on charts when shown selected points.
-        // It has something to do with hw processing.
-        // So we temporarily disable hw layer
-        setLayerType(LAYER_TYPE_NONE, null);
-        invalidate();
     }
 
     @Override
@@ -266,8 +237,24 @@ public class NotScaledLinePlotView extends FrameLayout
         this.horizontalAxis = horizontalAxis;
     }
 
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        scaleTween = new Tween(clock, 200, this, scaleTweenListener);
+    }
+
     @Override
     public void setChartData(ChartData chartData) {
+        paints = new Paint[chartData.entities.size()];
+        dataLines = new float[chartData.entities.size()][];
+        tileVisibility = new boolean[chartData.entities.size()];
+
         for (Entity entity: chartData.entities) {
             if (elementsCount == -1) {
                 elementsCount = entity.values.length;
@@ -282,32 +269,20 @@ public class NotScaledLinePlotView extends FrameLayout
             paint.setColor(entity.color);
             paint.setStrokeWidth(strokeWidth);
             paint.setAntiAlias(true);
-            paints.put(entity, paint);
+            paints[entity.index] = paint;
 
-            Coord[] coords = new Coord[entity.values.length];
-            for (int i = 0; i < coords.length; i++) {
-                coords[i] = new Coord();
-            }
-            pointCoordsByEntity.put(entity, coords);
+            dataLines[entity.index] = MatrixLines.segments(entity.values);
         }
     }
 
     private void startGraphAnimator(int maxValue, int minValue) {
-        if (scaleAnimator != null) {
-            scaleAnimator.cancel();
-        }
-
         prevMaxValue = currentMaxValue;
         nextMaxValue = maxValue;
 
         prevMinValue = currentMinValue;
         nextMinValue = minValue;
 
-        scaleAnimator = ObjectAnimator.ofInt(0, 1);
-        scaleAnimator.addUpdateListener(animatorUpdateListener);
-        scaleAnimator.addListener(animatorListener);
-        scaleAnimator.setDuration(200);
-        scaleAnimator.start();
+        scaleTween.start();
     }
 
     @Override
@@ -317,119 +292,141 @@ public class NotScaledLinePlotView extends FrameLayout
             triggerAnimationOnEntityChange = true;
         }
         resetSelectedPoint();
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_VISIBILITY);
     }
 
     private void allocateLines() {
-        lines = new float[horizontalAxis.values.length * 4];
+        lines = new float[horizontalAxis.size() * 4];
     }
 
-    @SuppressWarnings("all")
     private void drawPlot(Canvas canvas, Entity entity) {
-        int width = getWidth();
-        int height = getHeight() - topPadding;
         int[] values = entity.values;
-        float scaleX = (width - paddingHorizontal * 2) / (bounds.getWidth() - 1);
-        float scaleY = (float)height / (currentMaxValue - currentMinValue);
+        float scaleX = coordsScaleX;
+        float scaleY = coordsScaleY;
         int offBoundsElements = (int)Math.ceil(paddingHorizontal / scaleX);
 
-        if (lines == null) {
-            allocateLines();
-        }
-        int left = Math.max((int)bounds.left - offBoundsElements, 0);
-        int right = Math.min((int)Math.ceil(bounds.right) + offBoundsElements,
+        int left = Math.max((int)boundsLeft - offBoundsElements, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + offBoundsElements,
                 entity.values.length - 1);
 
-        Coord[] selectableCoords = pointCoordsByEntity.get(entity);
-
-        // draw right to left when moving left bound to get rid of flickering
-        if (state == NavigationState.MOVING_LEFT_BOUND) {
-            float x = (width + (right - bounds.right) *
-                    scaleX - paddingHorizontal);
-            float y = (currentMaxValue - values[right]) *
-                    scaleY + topPadding;
-            selectableCoords[right].update(x, y);
-
-            for (int i = right - 1; i >= left; i--) {
-                x = width - paddingHorizontal - (bounds.right - i) * scaleX;
-                y = (currentMaxValue - values[i]) * scaleY + topPadding;
-                selectableCoords[i].update(x, y);
-                pointCoordsByEntity.get(entity)[right].update(x, y);
-
-                int index = (i - left) * 4;
-
-                lines[index] = width - (bounds.right - i) *
-                        scaleX - paddingHorizontal;
-                lines[index + 1] = (currentMaxValue - values[i]) *
-                        scaleY + topPadding;
-
-                lines[index + 2] = width - (bounds.right - i - 1) *
-                        scaleX - paddingHorizontal;
-                lines[index + 3] = (currentMaxValue - values[i + 1]) *
-                        scaleY + topPadding;
-            }
-        }
-        else {
-            float x = (left - bounds.left) * scaleX + paddingHorizontal;
-            float y = (currentMaxValue - values[left]) * scaleY + topPadding;
-            selectableCoords[left].update(x, y);
-
-            float deltaX = paddingHorizontal - scaleX * bounds.left;
-            float deltaY = topPadding + scaleY * currentMaxValue;
-            float deltaLineY = scaleY * currentMaxValue + topPadding;
-            float deltaLineX1 = width - scaleX * bounds.right - paddingHorizontal;
-            float deltaLineX2 = width - scaleX * bounds.right +
-                    scaleX - paddingHorizontal;
-
-            for (int i = left; i < right; i++) {
-                x = scaleX * i + deltaX;
-                y = deltaY - scaleY * values[i];
-                selectableCoords[i].update(x, y);
-
-                int index = (i - left) * 4;
-                lines[index] = deltaLineX1 + scaleX * i;
-                lines[index + 1] = deltaLineY - scaleY * values[i];
-
-                lines[index + 2] = deltaLineX2 + scaleX * i;
-                lines[index + 3] = deltaLineY - scaleY * values[i + 1];
-            }
-        }
+        float originX = coordsOriginX;
+        float originY = coordsOriginY;
 
         int alpha = 255;
-        if (entity == animatedEntity && scaleAnimator != null) {
-            alpha = (int)(scaleAnimator.getAnimatedFraction() * 255);
+        if (entity == animatedEntity && scaleTween.isRunning()) {
+            alpha = (int)(scaleTween.getAnimatedFraction() * 255);
             if (!entity.isVisible()) {
                 alpha = 255 - alpha;
             }
         }
-        Paint paint = paints.get(entity);
+        Paint paint = paints[entity.index];
         if (paint.getAlpha() != alpha) {
             paint.setAlpha(alpha);
         }
-        int pointsCount = (right - left) * 4;
-        canvas.drawLines(lines, 0, pointsCount, paint);
-        selectableCoords[right].update(lines[pointsCount - 2], lines[pointsCount - 1]);
 
-        if (selectedPoint.isReady()) {
-            drawSelectedPoint(canvas, entity);
+        ExtremaPyramid pyramid = entity.getPyramid();
+        int level = pyramid.levelFor(1 / scaleX);
+
+        if (level >= ReducedLines.MIN_LEVEL) {
+            // several points fall on each pixel, so only the extremes
+            // of every bucket are connected instead of all the points
+            int pointsCount = reducedLines.fill(pyramid, level, left, right,
+                    values, originX, scaleX, originY, scaleY);
+            canvas.drawLines(reducedLines.getLines(), 0, pointsCount, paint);
+        }
+        else {
+            // pans with the same scales are drawn from the tiles, so every
+            // frame here moves all the points, they are mapped from the data
+            // space with one Matrix call
+            if (lines == null) {
+                allocateLines();
+            }
+            int pointsCount = matrixLines.map(dataLines[entity.index], lines, 0,
+                    left, right, originX, scaleX, originY, scaleY);
+            canvas.drawLines(lines, 0, pointsCount, paint);
         }
     }
 
-    @SuppressWarnings("ConstantConditions")
-    private void drawSelectedPoint(Canvas canvas, Entity entity) {
-        float x = selectedPoint.x;
-        float y = selectedPoint.coordsY.get(entity);
+    // While the whole selection is moved the scales usually stay the same,
+    // so the plot is drawn from tiles which only have to be shifted
+    private boolean canDrawTiles() {
+        return state == NavigationState.MOVING_SELECTION &&
+                !scaleTween.isRunning() &&
+                animatedEntity == null;
+    }
 
-        int height = getHeight();
-        if (y + selectedCircleRadius > height) {
-            y = height - selectedCircleRadius;
+    private void drawTiles(Canvas canvas) {
+        for (Entity entity: entities) {
+            tileVisibility[entity.index] = entity.isVisible();
         }
+        tiles.setKey(coordsScaleX, currentMinValue, currentMaxValue, tileVisibility);
+
+        // the tiles may have been rendered with a slightly different scale,
+        // the selection has to match what is on the screen
+        coordsScaleX = tiles.getScaleX();
+        coordsOriginX = paddingHorizontal - coordsScaleX * boundsLeft;
+        tiles.draw(canvas, coordsOriginX, coordsScaleX * (horizontalAxis.size() - 1),
+                getWidth(), getHeight(), tileRenderer);
+    }
 
-        selectedCirclePaint.setColor(entity.color);
-        canvas.drawCircle(x, y, selectedCircleRadius, selectedCirclePaint);
+    private void renderTileLines(Canvas canvas,
+                                 Entity entity,
+                                 int left,
+                                 int right,
+                                 float originX,
+                                 float scaleX,
+                                 float originY) {
+        int[] values = entity.values;
+        float scaleY = coordsScaleY;
+
+        if (lines == null) {
+            allocateLines();
+        }
+        float[] drawnLines = lines;
+        int pointsCount;
+        ExtremaPyramid pyramid = entity.getPyramid();
+        int level = pyramid.levelFor(1 / scaleX);
+
+        if (level >= ReducedLines.MIN_LEVEL) {
+            pointsCount = reducedLines.fill(pyramid, level, left, right,
+                    values, originX, scaleX, originY, scaleY);
+            drawnLines = reducedLines.getLines();
+        }
+        else {
+            pointsCount = matrixLines.map(dataLines[entity.index], lines, 0,
+                    left, right, originX, scaleX, originY, scaleY);
+        }
 
-        selectedCirclePaint.setColor(chartBackground);
-        canvas.drawCircle(x, y, selectedCircleRadius * 0.6f, selectedCirclePaint);
+        Paint paint = paints[entity.index];
+        if (paint.getAlpha() != 255) {
+            paint.setAlpha(255);
+        }
+        canvas.drawLines(drawnLines, 0, pointsCount, paint);
+    }
+
+    // The transform from the data space to the screen for this frame,
+    // it is kept for the selection whatever way the plot is drawn
+    private void updateCoords() {
+        int width = getWidth();
+        int height = getHeight() - topPadding;
+        float scaleX = (width - paddingHorizontal * 2) / (boundsRight - boundsLeft);
+        float scaleY = (float)height / (currentMaxValue - currentMinValue);
+
+        coordsOriginX = state == NavigationState.MOVING_LEFT_BOUND ?
+                width - paddingHorizontal - scaleX * boundsRight :
+                paddingHorizontal - scaleX * boundsLeft;
+        coordsScaleX = scaleX;
+        coordsOriginY = topPadding + scaleY * currentMaxValue;
+        coordsScaleY = scaleY;
+    }
+
+    private float coordX(int pointIndex) {
+        return coordsOriginX + coordsScaleX * pointIndex;
+    }
+
+    private float coordY(Entity entity, int pointIndex) {
+        return coordsOriginY - coordsScaleY * entity.values[pointIndex];
     }
 
     public void updateValues(int min, int max) {
@@ -439,13 +436,15 @@ public class NotScaledLinePlotView extends FrameLayout
 
     @Override
     protected void onDraw(Canvas canvas) {
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         // todo move non drawing-related code away from onDraw
         if (triggerAnimationOnEntityChange) {
             triggerAnimationOnEntityChange = false;
             startGraphAnimator(maxValue, minValue);
         }
         else {
-            if (scaleAnimator == null &&
+            if (!scaleTween.isRunning() &&
                     (currentMaxValue == 0 || state == NavigationState.IDLE)) {
                 currentMaxValue = maxValue;
                 currentMinValue = minValue;
@@ -457,15 +456,16 @@ public class NotScaledLinePlotView extends FrameLayout
             }
         }
 
-        if (selectedPoint.isReady()) {
-            float x = selectedPoint.x;
+        updateCoords();
 
-            canvas.drawLine(x, 0, x, getHeight(), selectedLinePaint);
+        if (canDrawTiles()) {
+            drawTiles(canvas);
         }
-
-        for (Entity entity: entities) {
-            if (entity.isVisible() || entity == animatedEntity) {
-                drawPlot(canvas, entity);
+        else {
+            for (Entity entity: entities) {
+                if (entity.isVisible() || entity == animatedEntity) {
+                    drawPlot(canvas, entity);
+                }
             }
         }
 
@@ -477,10 +477,9 @@ public class NotScaledLinePlotView extends FrameLayout
                     break;
                 }
             }
-            if (pointCoordsByEntity.containsKey(visibleEntity)) {
-                Coord[] coords = pointCoordsByEntity.get(visibleEntity);
-                if (coords != null && coords.length > selectedPointIndex) {
-                    selectedPoint.x = coords[selectedPointIndex].x;
+            if (visibleEntity != null) {
+                if (selectedPointIndex < horizontalAxis.size()) {
+                    selectedPoint.x = coordX(selectedPointIndex);
                     showSelectedPoint();
                 }
             }
@@ -494,33 +493,26 @@ public class NotScaledLinePlotView extends FrameLayout
     }
 
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        this.bounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
         resetSelectedPoint();
-        postInvalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     @Override
     public void onNavigationStateChanged(NavigationState state) {
         this.state = state;
         resetSelectedPoint();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     private void resetSelectedPoint() {
-        setLayerType(LAYER_TYPE_HARDWARE, null);
         selectedPoint.reset();
         selectedPointViewCallback.hide();
         selectedPointIndex = -1;
     }
 
-    private static class Coord {
-        public float x;
-        public float y;
-
-        public void update(float x, float y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
 }
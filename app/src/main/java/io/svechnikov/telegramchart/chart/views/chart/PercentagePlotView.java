@@ -1,8 +1,5 @@
 package io.svechnikov.telegramchart.chart.views.chart;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.content.res.TypedArray;
@@ -16,83 +13,68 @@ import android.view.MotionEvent;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.ScrollListener;
 import io.svechnikov.telegramchart.chart.data.Axis;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
 import io.svechnikov.telegramchart.chart.views.SelectedPointViewCallback;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
 public class PercentagePlotView extends FrameLayout
         implements MainPlotView {
 
-    private NavigationBounds bounds;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private NavigationState state = NavigationState.IDLE;
     private int selectedPointIndex = -1;
     private boolean showSelectedPointWhenReady;
 
-    private ValueAnimator scaleAnimator;
+    private Tween scaleTween;
 
     private final int topPadding;
     private final int paddingHorizontal;
 
     private final List<Entity> entities = new ArrayList<>();
-    private final Map<Entity, Paint> paints = new HashMap<>();
+    private Paint[] paints;
     private int elementsCount = -1;
     private boolean hasDrawn;
 
-    private boolean animationCanceled;
     private Axis horizontalAxis;
     private Entity animatedEntity;
     private float[][] lines;
+    private final VertexMesh mesh = new VertexMesh();
     private boolean triggerAnimationOnEntityChange = false;
     private final GestureDetector gestureDetector;
 
-    private Map<Entity, float[]> pointCoordsByEntity = new HashMap<>();
+    // the last drawn transform, selection coordinates are calculated from it
+    private float coordsOriginX;
+    private float coordsScaleX;
     private final SelectedPoint selectedPoint = new SelectedPoint();
     private final ScrollListener scrollListener = new ScrollListener();
     private SelectedPointViewCallback selectedPointViewCallback;
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
     private final Paint selectedLinePaint = new Paint();
 
-    private final ValueAnimator.AnimatorUpdateListener animatorUpdateListener =
-            new ValueAnimator.AnimatorUpdateListener() {
-                @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    invalidate();
-                }
-            };
-    private final ValueAnimator.AnimatorListener animatorListener =
-            new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    animationCanceled = false;
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    animatedEntity = null;
-                    if (!animationCanceled) {
-                        scaleAnimator = null;
-                    }
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) {
-                    animationCanceled = true;
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animation) {
+    private final Tween.Listener scaleTweenListener = new Tween.Listener() {
+        @Override
+        public void onTweenUpdate(Tween tween) {
+            // values are interpolated when the plot is drawn
+        }
 
-                }
-            };
+        @Override
+        public void onTweenEnd(Tween tween) {
+            animatedEntity = null;
+        }
+    };
 
     public PercentagePlotView(Context context) {
         this(context, null);
@@ -166,43 +148,37 @@ public class PercentagePlotView extends FrameLayout
         return selectedPointIndex;
     }
 
-    @SuppressWarnings("all")
     private void findSelectedPoint(float x) {
-        int left = (int)bounds.left;
-        float closestDistance = Float.MAX_VALUE;
-        Entity visibleEntity = null;
-        for (Entity entity: entities) {
-            if (entity.isVisible()) {
-                visibleEntity = entity;
-                break;
-            }
+        if (coordsScaleX == 0) {
+            // nothing has been drawn yet
+            return;
         }
-        float[] coords = pointCoordsByEntity.get(visibleEntity);
-
-        float step = coords[left + 1] - coords[left];
-        float delta = coords[left];
-        selectedPointIndex = (int)(Math.round((x - delta) / step) + left);
+        selectedPointIndex = Math.round((x - coordsOriginX) / coordsScaleX);
 
         if (selectedPointIndex < 0 ||
-                selectedPointIndex >= horizontalAxis.values.length) {
+                selectedPointIndex >= horizontalAxis.size()) {
             selectedPointIndex = -1;
             return;
         }
 
-        if (selectedPoint.x == coords[selectedPointIndex]) {
+        if (selectedPoint.x == coordX(selectedPointIndex)) {
             return;
         }
-        if (coords[selectedPointIndex] < 0) {
+        if (coordX(selectedPointIndex) < 0) {
             selectedPointIndex++;
         }
-        if (coords[selectedPointIndex] > getWidth()) {
+        if (coordX(selectedPointIndex) > getWidth()) {
             selectedPointIndex--;
         }
-        selectedPoint.x = coords[selectedPointIndex];
+        selectedPoint.x = coordX(selectedPointIndex);
 
         showSelectedPoint();
     }
 
+    private float coordX(int pointIndex) {
+        return coordsOriginX + coordsScaleX * pointIndex;
+    }
+
     @SuppressWarnings("all")
     private void showSelectedPoint() {
         int sum = 0;
@@ -216,16 +192,16 @@ public class PercentagePlotView extends FrameLayout
                 int value = entity.values[selectedPointIndex];
                 int percentage = (int)Math.round(((float)value / sum * 100));
                 selectedPoint.addValue(entity, value);
-                selectedPoint.percentValues.put(entity, percentage);
+                selectedPoint.addPercentValue(entity, percentage);
             }
         }
-        if (selectedPoint.values.isEmpty()) {
+        if (selectedPoint.isEmpty()) {
             showSelectedPointWhenReady = false;
             resetSelectedPoint();
             return;
         }
         selectedPoint.title =
-                horizontalAxis.values[selectedPointIndex].selectedName;
+                horizontalAxis.selectedName(selectedPointIndex);
         selectedPointViewCallback.show(!showSelectedPointWhenReady);
         showSelectedPointWhenReady = false;
         // on some devices there might be blank areas
@@ -233,7 +209,8 @@ public class PercentagePlotView extends FrameLayout
         // It has something to do with hw processing.
         // So we temporarily disable hw layer
         setLayerType(LAYER_TYPE_NONE, null);
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_SELECTION);
     }
 
     @Override
@@ -246,8 +223,22 @@ public class PercentagePlotView extends FrameLayout
         this.horizontalAxis = horizontalAxis;
     }
 
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        scaleTween = new Tween(clock, 200, this, scaleTweenListener);
+    }
+
     @Override
     public void setChartData(ChartData chartData) {
+        paints = new Paint[chartData.entities.size()];
+
         for (Entity entity: chartData.entities) {
             if (elementsCount == -1) {
                 elementsCount = entity.values.length;
@@ -260,23 +251,12 @@ public class PercentagePlotView extends FrameLayout
             Paint paint = new Paint();
             paint.setStyle(Paint.Style.STROKE);
             paint.setColor(entity.color);
-            paints.put(entity, paint);
-
-            float[] coords = new float[entity.values.length];
-            pointCoordsByEntity.put(entity, coords);
+            paints[entity.index] = paint;
         }
     }
 
     private void startGraphAnimator() {
-        if (scaleAnimator != null) {
-            scaleAnimator.cancel();
-        }
-
-        scaleAnimator = ObjectAnimator.ofInt(0, 1);
-        scaleAnimator.addUpdateListener(animatorUpdateListener);
-        scaleAnimator.addListener(animatorListener);
-        scaleAnimator.setDuration(200);
-        scaleAnimator.start();
+        scaleTween.start();
     }
 
     @Override
@@ -286,23 +266,27 @@ public class PercentagePlotView extends FrameLayout
             triggerAnimationOnEntityChange = true;
         }
         resetSelectedPoint();
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_VISIBILITY);
     }
 
     private void allocateLines() {
-        lines = new float[entities.size()][horizontalAxis.values.length * 4];
+        lines = new float[entities.size()][horizontalAxis.size() * 4];
     }
 
     @Override
     protected void onDraw(Canvas canvas) {
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         // todo move non drawing-related code away from onDraw
         if (triggerAnimationOnEntityChange) {
             triggerAnimationOnEntityChange = false;
             startGraphAnimator();
         }
         else {
+            // a running fade of a toggled entity is not restarted
             if (state != NavigationState.IDLE &&
-                    hasDrawn) {
+                    hasDrawn && !scaleTween.isRunning()) {
                 startGraphAnimator();
             }
         }
@@ -317,10 +301,9 @@ public class PercentagePlotView extends FrameLayout
                     break;
                 }
             }
-            if (pointCoordsByEntity.containsKey(visibleEntity)) {
-                float[] coords = pointCoordsByEntity.get(visibleEntity);
-                if (coords != null && coords.length > selectedPointIndex) {
-                    selectedPoint.x = coords[selectedPointIndex];
+            if (visibleEntity != null) {
+                if (selectedPointIndex < horizontalAxis.size()) {
+                    selectedPoint.x = coordX(selectedPointIndex);
                     showSelectedPoint();
                 }
             }
@@ -338,18 +321,20 @@ public class PercentagePlotView extends FrameLayout
         float width = getWidth();
         float height = getHeight();
 
-        float barWidth = (width - paddingHorizontal * 2) / (bounds.getWidth());
+        float barWidth = (width - paddingHorizontal * 2) / (boundsRight - boundsLeft + 1);
         int offBoundsElements = (int)Math.ceil(paddingHorizontal / barWidth);
 
         if (lines == null) {
             allocateLines();
         }
 
-        int left = Math.max((int)bounds.left - offBoundsElements - 1, 0);
-        int right = Math.min((int)Math.ceil(bounds.right) + offBoundsElements + 1,
+        int left = Math.max((int)boundsLeft - offBoundsElements - 1, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + offBoundsElements + 1,
                 horizontalAxis.size() - 1);
 
-        float deltaLineX1 = width - barWidth * bounds.right - paddingHorizontal;
+        float deltaLineX1 = width - barWidth * boundsRight - paddingHorizontal;
+        coordsOriginX = deltaLineX1;
+        coordsScaleX = barWidth;
 
         for (int i = left; i < right; i++) {
             float yFrom = height;
@@ -360,10 +345,10 @@ public class PercentagePlotView extends FrameLayout
             for (Entity entity: entities) {
                 if (entity == animatedEntity) {
                     if (entity.isVisible()) {
-                        sum += entity.values[i] * scaleAnimator.getAnimatedFraction();
+                        sum += entity.values[i] * scaleTween.getAnimatedFraction();
                     }
                     else {
-                        sum += entity.values[i] * (1 - scaleAnimator.getAnimatedFraction());
+                        sum += entity.values[i] * (1 - scaleTween.getAnimatedFraction());
                     }
                 }
                 else if (entity.isVisible()) {
@@ -378,10 +363,10 @@ public class PercentagePlotView extends FrameLayout
 
                 if (entity == animatedEntity) {
                     if (entity.isVisible()) {
-                        value *= scaleAnimator.getAnimatedFraction();
+                        value *= scaleTween.getAnimatedFraction();
                     }
                     else {
-                        value *= (1 - scaleAnimator.getAnimatedFraction());
+                        value *= (1 - scaleTween.getAnimatedFraction());
                     }
                 }
                 else if (!entity.isVisible()) {
@@ -393,9 +378,6 @@ public class PercentagePlotView extends FrameLayout
                 float yTo = yFrom - percentage * (height - topPadding);
                 float x = i * barWidth + deltaLineX1;
 
-                float[] selectableCoords = pointCoordsByEntity.get(entity);
-                selectableCoords[i] = x;
-
                 float[] lines = this.lines[j];
                 lines[index] = x;
                 lines[index + 1] = yFrom;
@@ -406,15 +388,20 @@ public class PercentagePlotView extends FrameLayout
             }
         }
 
-        int pointsCount = (right - left) * 4;
-        for (int i = 0; i < entities.size(); i++) {
-            Entity entity = entities.get(i);
-            if (entity.isVisible() || entity == animatedEntity) {
-                Paint paint = paints.get(entity);
-                paint.setStrokeWidth(barWidth);
-                float[] lines = this.lines[i];
-
-                canvas.drawLines(lines, 0, pointsCount, paint);
+        if (VertexMesh.isSupported(canvas)) {
+            drawAreas(canvas, right - left);
+        }
+        else {
+            int pointsCount = (right - left) * 4;
+            for (int i = 0; i < entities.size(); i++) {
+                Entity entity = entities.get(i);
+                if (entity.isVisible() || entity == animatedEntity) {
+                    Paint paint = paints[entity.index];
+                    paint.setStrokeWidth(barWidth);
+                    float[] lines = this.lines[i];
+
+                    canvas.drawLines(lines, 0, pointsCount, paint);
+                }
             }
         }
 
@@ -425,11 +412,39 @@ public class PercentagePlotView extends FrameLayout
         }
     }
 
+    // Neighbour points of every entity are joined with quads, so the areas
+    // meet exactly without gaps or overlaps and are drawn with one call
+    private void drawAreas(Canvas canvas, int pointsCount) {
+        int segmentsCount = Math.max(pointsCount - 1, 0);
+        mesh.reset(segmentsCount * entities.size());
+
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isVisible() && entity != animatedEntity) {
+                continue;
+            }
+            float[] lines = this.lines[i];
+
+            // a point is stored as x, bottom y, x, top y
+            for (int j = 4; j < pointsCount * 4; j += 4) {
+                mesh.addQuad(lines[j - 4], lines[j - 1],
+                        lines[j], lines[j + 3],
+                        lines[j], lines[j + 1],
+                        lines[j - 4], lines[j - 3],
+                        entity.color);
+            }
+        }
+
+        mesh.draw(canvas);
+    }
+
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        this.bounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
         resetSelectedPoint();
-        postInvalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     @Override
@@ -0,0 +1,138 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+import java.util.Arrays;
+
+// Bitmap tiles of fixed width laid along the x axis of a plot.
+// Tile i covers [i * TILE_WIDTH, (i + 1) * TILE_WIDTH) where x is measured
+// from the first point, so panning with the same scale only moves the tiles.
+// Tiles are dropped once anything that affects their content changes
+class PlotTiles {
+
+    static final int TILE_WIDTH = 256;
+
+    // Bounds of a moving selection keep their width only up to float
+    // rounding, so close scales are treated as the same one
+    private static final float SCALE_TOLERANCE = 1e-4f;
+
+    interface Renderer {
+        // originX is the x of the first point in the tile's coordinates
+        void renderTile(Canvas canvas, float originX);
+    }
+
+    private final Canvas canvas = new Canvas();
+    private final Paint paint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private Bitmap[] bitmaps = new Bitmap[0];
+    private int[] tileIndices = new int[0];
+    private int height;
+
+    private float scaleX;
+    private int minValue;
+    private int maxValue;
+    // by Entity.index
+    private boolean[] visibility = new boolean[0];
+
+    // Drops the tiles if they were rendered with other parameters
+    void setKey(float scaleX, int minValue, int maxValue, boolean[] visibility) {
+        if (Math.abs(this.scaleX - scaleX) > scaleX * SCALE_TOLERANCE ||
+                this.minValue != minValue ||
+                this.maxValue != maxValue ||
+                !Arrays.equals(this.visibility, visibility)) {
+            this.scaleX = scaleX;
+            this.minValue = minValue;
+            this.maxValue = maxValue;
+            if (this.visibility.length != visibility.length) {
+                this.visibility = new boolean[visibility.length];
+            }
+            System.arraycopy(visibility, 0, this.visibility, 0, visibility.length);
+            clear();
+        }
+    }
+
+    // Scale the tiles are rendered with, it should be used
+    // to position them instead of the one passed to setKey()
+    float getScaleX() {
+        return scaleX;
+    }
+
+    void clear() {
+        for (int i = 0; i < tileIndices.length; i++) {
+            tileIndices[i] = -1;
+        }
+    }
+
+    void release() {
+        for (Bitmap bitmap: bitmaps) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+        }
+        bitmaps = new Bitmap[0];
+        tileIndices = new int[0];
+    }
+
+    // originX is the x of the first point on the screen, plotWidth is
+    // the distance between the first and the last points
+    void draw(Canvas target,
+              float originX,
+              float plotWidth,
+              int width,
+              int height,
+              Renderer renderer) {
+        int count = width / TILE_WIDTH + 2;
+        if (count != bitmaps.length || height != this.height) {
+            release();
+            bitmaps = new Bitmap[count];
+            tileIndices = new int[count];
+            this.height = height;
+            clear();
+        }
+
+        int first = Math.max((int)Math.floor(-originX / TILE_WIDTH), 0);
+        int last = Math.min((int)Math.floor((width - originX) / TILE_WIDTH),
+                (int)(plotWidth / TILE_WIDTH));
+
+        for (int tile = first; tile <= last; tile++) {
+            int slot = findSlot(tile, first, last);
+            if (tileIndices[slot] != tile) {
+                render(slot, tile, renderer);
+            }
+            target.drawBitmap(bitmaps[slot],
+                    originX + tile * TILE_WIDTH, 0, paint);
+        }
+    }
+
+    // Slot holding the tile or, if there is none, a slot
+    // that can be reused because its tile is off the screen
+    private int findSlot(int tile, int first, int last) {
+        int free = -1;
+        for (int i = 0; i < tileIndices.length; i++) {
+            int index = tileIndices[i];
+            if (index == tile) {
+                return i;
+            }
+            if (free == -1 && (index < first || index > last)) {
+                free = i;
+            }
+        }
+        return free;
+    }
+
+    private void render(int slot, int tile, Renderer renderer) {
+        Bitmap bitmap = bitmaps[slot];
+        if (bitmap == null) {
+            bitmap = Bitmap.createBitmap(TILE_WIDTH, height, Bitmap.Config.ARGB_8888);
+            bitmaps[slot] = bitmap;
+        }
+        else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        canvas.setBitmap(bitmap);
+        renderer.renderTile(canvas, -tile * TILE_WIDTH);
+        tileIndices[slot] = tile;
+    }
+}
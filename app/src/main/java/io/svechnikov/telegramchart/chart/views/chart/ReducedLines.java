@@ -0,0 +1,65 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import io.svechnikov.telegramchart.chart.data.ExtremaPyramid;
+
+// Builds drawLines() segments from a level of ExtremaPyramid
+// when there are several points per pixel
+class ReducedLines {
+
+    // On smaller buckets the reduction would emit almost every point anyway
+    static final int MIN_LEVEL = 2;
+
+    private int[] indices = new int[0];
+    private float[] lines = new float[0];
+    private int lastIndex;
+
+    float[] getLines() {
+        return lines;
+    }
+
+    // Index of the last point of the segments, it may be beyond right
+    int getLastIndex() {
+        return lastIndex;
+    }
+
+    // x = originX + scaleX * index, y = originY - scaleY * value.
+    // Returns the number of floats to pass to drawLines()
+    int fill(ExtremaPyramid pyramid,
+             int level,
+             int left,
+             int right,
+             int[] values,
+             float originX,
+             float scaleX,
+             float originY,
+             float scaleY) {
+        int capacity = pyramid.maxPointsCount(level, left, right);
+        if (indices.length < capacity) {
+            indices = new int[capacity];
+            lines = new float[capacity * 4];
+        }
+
+        int count = pyramid.collect(level, left, right, indices);
+
+        float prevX = originX + scaleX * indices[0];
+        float prevY = originY - scaleY * values[indices[0]];
+
+        for (int j = 1; j < count; j++) {
+            int index = indices[j];
+            float x = originX + scaleX * index;
+            float y = originY - scaleY * values[index];
+
+            int offset = (j - 1) * 4;
+            lines[offset] = prevX;
+            lines[offset + 1] = prevY;
+            lines[offset + 2] = x;
+            lines[offset + 3] = y;
+
+            prevX = x;
+            prevY = y;
+        }
+
+        lastIndex = indices[count - 1];
+        return (count - 1) * 4;
+    }
+}
@@ -1,11 +1,7 @@
 package io.svechnikov.telegramchart.chart.views.chart;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
-import android.content.res.TypedArray;
 import android.graphics.Canvas;
 import android.graphics.Color;
 import android.graphics.Paint;
@@ -17,70 +13,77 @@ import android.view.ViewGroup;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.ScrollListener;
 import io.svechnikov.telegramchart.chart.data.Axis;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
+import io.svechnikov.telegramchart.chart.data.ExtremaPyramid;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
 import io.svechnikov.telegramchart.chart.views.SelectedPointView;
 import io.svechnikov.telegramchart.chart.views.SelectedPointViewCallback;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
+// Every entity has its own y range. Tiles would have to be keyed by all
+// of them and dropped whenever any one is animated, so unlike
+// NotScaledLinePlotView pans reuse the mapped segments of SlidingLines
 public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
 
-    private NavigationBounds bounds;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private NavigationState state = NavigationState.IDLE;
     private int selectedPointIndex = -1;
     private boolean showSelectedPointWhenReady;
 
-    private Map<Entity, Integer> maxValues = new HashMap<>();
-    private Map<Entity, Integer> currentMaxValues = new HashMap<>();
-    private Map<Entity, Integer> nextMaxValues = new HashMap<>();
-    private Map<Entity, Integer> prevMaxValues = new HashMap<>();
+    // per-entity state is indexed by Entity.index
+    private int[] maxValues;
+    private int[] currentMaxValues;
+    private int[] nextMaxValues;
+    private int[] prevMaxValues;
 
-    private Map<Entity, Integer> minValues = new HashMap<>();
-    private Map<Entity, Integer> currentMinValues = new HashMap<>();
-    private Map<Entity, Integer> nextMinValues = new HashMap<>();
-    private Map<Entity, Integer> prevMinValues = new HashMap<>();
+    private int[] minValues;
+    private int[] currentMinValues;
+    private int[] nextMinValues;
+    private int[] prevMinValues;
 
-    private final Map<Entity, ValueAnimator> scaleAnimators = new HashMap<>();
+    private AnimationClock animationClock;
+    private Tween[] scaleTweens;
 
     private final int topPadding;
     private final int paddingHorizontal;
-    private final int selectedCircleRadius;
-
-    private final Paint selectedCirclePaint = new Paint();
-    private final Paint selectedLinePaint = new Paint();
-    private final int chartBackground;
 
     private final List<Entity> entities = new ArrayList<>();
     private final int strokeWidth;
-    private final Map<Entity, Paint> paints = new HashMap<>();
+    private Paint[] paints;
     private int elementsCount = -1;
     private boolean hasDrawn;
 
-    private boolean animationCanceled;
     private Axis horizontalAxis;
     private Entity animatedEntity;
     private float[] lines;
+    private final ReducedLines reducedLines = new ReducedLines();
+    private final MatrixLines matrixLines = new MatrixLines();
+    private float[][] dataLines;
+    private SlidingLines[] slidingLines;
     private boolean triggerAnimationOnEntityChange = false;
     private final GestureDetector gestureDetector;
 
-    private Map<Entity, Coord[]> pointCoordsByEntity = new HashMap<>();
+    // the last drawn transform, selection coordinates are calculated from it
+    private float coordsOriginX;
+    private float coordsScaleX;
+    private float[] coordsOriginY;
+    private float[] coordsScaleY;
     private final SelectedPoint selectedPoint = new SelectedPoint();
     private final ScrollListener scrollListener = new ScrollListener();
     private SelectedPointViewCallback selectedPointViewCallback;
-
-    private final Map<Entity, ValueAnimator.AnimatorUpdateListener>
-            animatorUpdateListeners = new HashMap<>();
-    private final Map<Entity, ValueAnimator.AnimatorListener>
-            animatorListeners = new HashMap<>();
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
 
     public ScaledLinePlotView(Context context) {
         this(context, null);
@@ -101,24 +104,8 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
         strokeWidth = getResources().getDimensionPixelSize(
                 R.dimen.chart_main_stroke_width);
 
-        int[] style = {
-                R.attr.chartBackground,
-                R.attr.dividerColor};
-        TypedArray ta = context.obtainStyledAttributes(style);
-        chartBackground = ta.getColor(0, Color.WHITE);
-        int dividerColor = ta.getColor(1, Color.GRAY);
-        ta.recycle();
-
         paddingHorizontal = r.getDimensionPixelSize(R.dimen.chart_padding_horizontal);
 
-        selectedCirclePaint.setStyle(Paint.Style.FILL);
-        selectedLinePaint.setStyle(Paint.Style.STROKE);
-        selectedLinePaint.setStrokeWidth(r.getDimensionPixelSize(
-                R.dimen.chart_main_chart_divider_width));
-        selectedLinePaint.setColor(dividerColor);
-
-        selectedCircleRadius = r.getDimensionPixelSize(
-                R.dimen.chart_main_chart_selected_circle_radius);
         setBackgroundColor(Color.TRANSPARENT);
 
         gestureDetector = new GestureDetector(context, scrollListener);
@@ -158,39 +145,29 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
         return selectedPointIndex;
     }
 
-    @SuppressWarnings("all")
     private void findSelectedPoint(float x) {
-        int left = (int)bounds.left;
-        float closestDistance = Float.MAX_VALUE;
-        Entity visibleEntity = null;
-        for (Entity entity: entities) {
-            if (entity.isVisible()) {
-                visibleEntity = entity;
-                break;
-            }
+        if (coordsScaleX == 0) {
+            // nothing has been drawn yet
+            return;
         }
-        Coord[] coords = pointCoordsByEntity.get(visibleEntity);
-
-        float step = coords[left + 1].x - coords[left].x;
-        float delta = coords[left].x;
-        selectedPointIndex = (int)(Math.round((x - delta) / step) + left);
+        selectedPointIndex = Math.round((x - coordsOriginX) / coordsScaleX);
 
         if (selectedPointIndex < 0 ||
-                selectedPointIndex >= horizontalAxis.values.length) {
+                selectedPointIndex >= horizontalAxis.size()) {
             selectedPointIndex = -1;
             return;
         }
 
-        if (selectedPoint.x == coords[selectedPointIndex].x) {
+        if (selectedPoint.x == coordX(selectedPointIndex)) {
             return;
         }
-        if (coords[selectedPointIndex].x < 0) {
+        if (coordX(selectedPointIndex) < 0) {
             selectedPointIndex++;
         }
-        if (coords[selectedPointIndex].x > getWidth()) {
+        if (coordX(selectedPointIndex) > getWidth()) {
             selectedPointIndex--;
         }
-        selectedPoint.x = coords[selectedPointIndex].x;
+        selectedPoint.x = coordX(selectedPointIndex);
 
         showSelectedPoint();
     }
@@ -200,26 +177,20 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
         for (Entity entity: entities) {
             if (entity.isVisible()) {
                 selectedPoint.addCoordY(entity,
-                        pointCoordsByEntity.get(entity)[selectedPointIndex].y);
+                        coordY(entity, selectedPointIndex));
                 selectedPoint.addValue(entity,
                         entity.values[selectedPointIndex]);
             }
         }
-        if (selectedPoint.coordsY.isEmpty()) {
+        if (selectedPoint.isEmpty()) {
             showSelectedPointWhenReady = false;
             resetSelectedPoint();
             return;
         }
         selectedPoint.title =
-                horizontalAxis.values[selectedPointIndex].selectedName;
+                horizontalAxis.selectedName(selectedPointIndex);
         selectedPointViewCallback.show(!showSelectedPointWhenReady);
         showSelectedPointWhenReady = false;
-        // on some devices there might be blank areas
-        // on charts when shown selected points.
-        // It has something to do with hw processing.
-        // So we temporarily disable hw layer
-        setLayerType(LAYER_TYPE_NONE, null);
-        invalidate();
     }
 
     private SelectedPointView createSelectedPointView() {
@@ -243,9 +214,42 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
         this.horizontalAxis = horizontalAxis;
     }
 
-    @Override @SuppressWarnings("ConstantConditions")
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
+    // must be set before the chart data
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        animationClock = clock;
+    }
+
+    @Override
     public void setChartData(ChartData chartData) {
-        for (final Entity entity: chartData.entities) {
+        int entitiesCount = chartData.entities.size();
+
+        paints = new Paint[entitiesCount];
+        coordsOriginY = new float[entitiesCount];
+        coordsScaleY = new float[entitiesCount];
+        dataLines = new float[entitiesCount][];
+        slidingLines = new SlidingLines[entitiesCount];
+
+        maxValues = new int[entitiesCount];
+        currentMaxValues = new int[entitiesCount];
+        prevMaxValues = new int[entitiesCount];
+        nextMaxValues = new int[entitiesCount];
+
+        minValues = new int[entitiesCount];
+        currentMinValues = new int[entitiesCount];
+        prevMinValues = new int[entitiesCount];
+        nextMinValues = new int[entitiesCount];
+
+        scaleTweens = new Tween[entitiesCount];
+
+        for (Entity entity: chartData.entities) {
             if (elementsCount == -1) {
                 elementsCount = entity.values.length;
             }
@@ -253,118 +257,50 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
                 throw new IllegalArgumentException();
             }
 
+            final int index = entity.index;
+
             entities.add(entity);
             Paint paint = new Paint();
             paint.setStyle(Paint.Style.STROKE);
             paint.setColor(entity.color);
             paint.setStrokeWidth(strokeWidth);
             paint.setAntiAlias(true);
-            paints.put(entity, paint);
-
-            Coord[] coords = new Coord[entity.values.length];
-            for (int i = 0; i < coords.length; i++) {
-                coords[i] = new Coord();
-            }
-            pointCoordsByEntity.put(entity, coords);
-
-            maxValues.put(entity, 0);
-            currentMaxValues.put(entity, 0);
-            prevMaxValues.put(entity, 0);
-            nextMaxValues.put(entity, 0);
-
-            minValues.put(entity, 0);
-            currentMinValues.put(entity, 0);
-            prevMinValues.put(entity, 0);
-            nextMinValues.put(entity, 0);
-
-            animatorUpdateListeners.put(entity, new ValueAnimator.AnimatorUpdateListener() {
-                @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    float fraction = animation.getAnimatedFraction();
-
-                    currentMaxValues.put(entity, (int)(prevMaxValues.get(entity) +
-                            (nextMaxValues.get(entity) - prevMaxValues.get(entity)) * fraction));
+            paints[index] = paint;
 
-                    currentMinValues.put(entity, (int)(prevMinValues.get(entity) +
-                            (nextMinValues.get(entity) - prevMinValues.get(entity)) * fraction));
-                    invalidate();
-                }
-            });
-        }
-    }
-
-    @SuppressWarnings("ConstantConditions")
-    private void startGraphAnimator(final Entity entity, int maxValue, int minValue) {
-        ValueAnimator animator = scaleAnimators.get(entity);
-        if (animator != null) {
-            animator.cancel();
-        }
-
-        prevMaxValues.put(entity, currentMaxValues.get(entity));
-        nextMaxValues.put(entity, maxValue);
-
-        prevMinValues.put(entity, currentMinValues.get(entity));
-        nextMinValues.put(entity, minValue);
+            dataLines[index] = MatrixLines.segments(entity.values);
+            slidingLines[index] = new SlidingLines();
 
-        ValueAnimator.AnimatorUpdateListener updateListener = animatorUpdateListeners.get(entity);
-        if (updateListener == null) {
-            updateListener = new ValueAnimator.AnimatorUpdateListener() {
+            scaleTweens[index] = new Tween(animationClock, 200, this,
+                    new Tween.Listener() {
                 @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    float fraction = animation.getAnimatedFraction();
-                    int prevMaxValue = prevMaxValues.get(entity);
-                    int nextMaxValue = nextMaxValues.get(entity);
-                    int prevMinValue = prevMinValues.get(entity);
-                    int nextMinValue = nextMinValues.get(entity);
-
-                    currentMaxValues.put(entity, (int)(prevMaxValue +
-                            (nextMaxValue - prevMaxValue) * fraction));
-                    currentMinValues.put(entity, (int)(prevMinValue +
-                            (nextMinValue - prevMinValue) * fraction));
-                    invalidate();
-                }
-            };
-            animatorUpdateListeners.put(entity, updateListener);
-        }
+                public void onTweenUpdate(Tween tween) {
+                    float fraction = tween.getAnimatedFraction();
 
-        animator = ObjectAnimator.ofInt(0, 1);
-        animator.addUpdateListener(updateListener);
+                    currentMaxValues[index] = (int)(prevMaxValues[index] +
+                            (nextMaxValues[index] - prevMaxValues[index]) * fraction);
 
-        Animator.AnimatorListener listener = animatorListeners.get(entity);
-
-        if (listener == null) {
-            listener = new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    animationCanceled = false;
+                    currentMinValues[index] = (int)(prevMinValues[index] +
+                            (nextMinValues[index] - prevMinValues[index]) * fraction);
                 }
 
                 @Override
-                public void onAnimationEnd(Animator animation) {
+                public void onTweenEnd(Tween tween) {
                     animatedEntity = null;
-                    if (!animationCanceled) {
-                        scaleAnimators.remove(entity);
-                    }
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) {
-                    animationCanceled = true;
                 }
+            });
+        }
+    }
 
-                @Override
-                public void onAnimationRepeat(Animator animation) {
+    private void startGraphAnimator(Entity entity, int maxValue, int minValue) {
+        int index = entity.index;
 
-                }
-            };
-            animatorListeners.put(entity, listener);
-        }
+        prevMaxValues[index] = currentMaxValues[index];
+        nextMaxValues[index] = maxValue;
 
-        animator.addListener(listener);
-        animator.setDuration(200);
-        animator.start();
+        prevMinValues[index] = currentMinValues[index];
+        nextMinValues[index] = minValue;
 
-        scaleAnimators.put(entity, animator);
+        scaleTweens[index].start();
     }
 
     @Override
@@ -374,159 +310,138 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
             triggerAnimationOnEntityChange = true;
         }
         resetSelectedPoint();
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_VISIBILITY);
     }
 
     private void allocateLines() {
-        lines = new float[horizontalAxis.values.length * 4];
+        lines = new float[horizontalAxis.size() * 4];
     }
 
-    @SuppressWarnings("all")
     private void drawPlot(Canvas canvas, Entity entity) {
-        int currentMaxValue = currentMaxValues.get(entity);
-        int currentMinValue = currentMinValues.get(entity);
+        int currentMaxValue = currentMaxValues[entity.index];
+        int currentMinValue = currentMinValues[entity.index];
 
         int width = getWidth();
         int height = getHeight() - topPadding;
         int[] values = entity.values;
-        float scaleX = (width - paddingHorizontal * 2) / (bounds.getWidth() - 1);
+        float scaleX = (width - paddingHorizontal * 2) / (boundsRight - boundsLeft);
         float scaleY = (float)height / (currentMaxValue - currentMinValue);
         int offBoundsElements = (int)Math.ceil(paddingHorizontal / scaleX);
 
-        if (lines == null) {
-            allocateLines();
-        }
-        int left = Math.max((int)bounds.left - offBoundsElements, 0);
-        int right = Math.min((int)Math.ceil(bounds.right) + offBoundsElements,
+        int left = Math.max((int)boundsLeft - offBoundsElements, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + offBoundsElements,
                 entity.values.length - 1);
 
-        Coord[] selectableCoords = pointCoordsByEntity.get(entity);
+        float originX = state == NavigationState.MOVING_LEFT_BOUND ?
+                width - paddingHorizontal - scaleX * boundsRight :
+                paddingHorizontal - scaleX * boundsLeft;
+        float originY = topPadding + scaleY * currentMaxValue;
 
-        // draw right to left when moving left bound to get rid of flickering
-        if (state == NavigationState.MOVING_LEFT_BOUND) {
-            float x = (width + (right - bounds.right) *
-                    scaleX - paddingHorizontal);
-            float y = (currentMaxValue - values[right]) *
-                    scaleY + topPadding;
-            selectableCoords[right].update(x, y);
-
-            for (int i = right - 1; i >= left; i--) {
-                x = width - paddingHorizontal - (bounds.right - i) * scaleX;
-                y = (currentMaxValue - values[i]) * scaleY + topPadding;
-                selectableCoords[i].update(x, y);
-                pointCoordsByEntity.get(entity)[right].update(x, y);
-
-                lines[(i - left) * 4] = width - (bounds.right - i) *
-                        scaleX - paddingHorizontal;
-                lines[(i - left) * 4 + 1] = (currentMaxValue - values[i]) *
-                        scaleY + topPadding;
-
-                lines[(i - left) * 4 + 2] = width - (bounds.right - i - 1) *
-                        scaleX - paddingHorizontal;
-                lines[(i - left) * 4 + 3] = (currentMaxValue - values[i + 1]) *
-                        scaleY + topPadding;
-            }
-        }
-        else {
-            float x = (left - bounds.left) * scaleX + paddingHorizontal;
-            float y = (currentMaxValue - values[left]) * scaleY + topPadding;
-            selectableCoords[left].update(x, y);
-
-            float deltaX = paddingHorizontal - scaleX * bounds.left;
-            float deltaY = topPadding + scaleY * currentMaxValue;
-            float deltaLineY = scaleY * currentMaxValue + topPadding;
-            float deltaLineX1 = width - scaleX * bounds.right - paddingHorizontal;
-            float deltaLineX2 = width - scaleX * bounds.right +
-                    scaleX - paddingHorizontal;
-
-            for (int i = left; i < right; i++) {
-                x = scaleX * i + deltaX;
-                y = deltaY - scaleY * values[i];
-                selectableCoords[i].update(x, y);
-
-                lines[(i - left) * 4] = deltaLineX1 + scaleX * i;
-                lines[(i - left) * 4 + 1] = deltaLineY - scaleY * values[i];
-
-                lines[(i - left) * 4 + 2] = deltaLineX2 + scaleX * i;
-                lines[(i - left) * 4 + 3] = deltaLineY - scaleY * values[i + 1];
-            }
-        }
+        coordsOriginX = originX;
+        coordsScaleX = scaleX;
+        coordsOriginY[entity.index] = originY;
+        coordsScaleY[entity.index] = scaleY;
 
         int alpha = 255;
-        ValueAnimator scaleAnimator = scaleAnimators.get(entity);
-        if (entity == animatedEntity && scaleAnimator != null) {
-            alpha = (int)(scaleAnimator.getAnimatedFraction() * 255);
+        Tween scaleTween = scaleTweens[entity.index];
+        if (entity == animatedEntity && scaleTween.isRunning()) {
+            alpha = (int)(scaleTween.getAnimatedFraction() * 255);
             if (!entity.isVisible()) {
                 alpha = 255 - alpha;
             }
         }
-        Paint paint = paints.get(entity);
+        Paint paint = paints[entity.index];
         if (paint.getAlpha() != alpha) {
             paint.setAlpha(alpha);
         }
-        int pointsCount = (right - left) * 4;
-        canvas.drawLines(lines, 0, pointsCount, paint);
-        selectableCoords[right].update(lines[pointsCount - 2], lines[pointsCount - 1]);
 
-        if (selectedPoint.isReady()) {
-            drawSelectedPoint(canvas, entity);
+        ExtremaPyramid pyramid = entity.getPyramid();
+        int level = pyramid.levelFor(1 / scaleX);
+
+        if (level >= ReducedLines.MIN_LEVEL) {
+            // several points fall on each pixel, so only the extremes
+            // of every bucket are connected instead of all the points
+            int pointsCount = reducedLines.fill(pyramid, level, left, right,
+                    values, originX, scaleX, originY, scaleY);
+            canvas.drawLines(reducedLines.getLines(), 0, pointsCount, paint);
+        }
+        else {
+            SlidingLines sliding = slidingLines[entity.index];
+            float[] segments = dataLines[entity.index];
+            if (sliding.setScales(scaleX, originY, scaleY)) {
+                // panning keeps the scales, so the segments of the previous
+                // frames are only moved and the points coming into view are mapped
+                sliding.update(segments, left, right);
+                sliding.draw(canvas, paint, pointX(sliding.getBase()), scaleX);
+            }
+            else {
+                // zooming or animating the y range moves every point,
+                // they are mapped from the data space with one Matrix call
+                if (lines == null) {
+                    allocateLines();
+                }
+                int pointsCount = matrixLines.map(segments, lines, 0, left, right,
+                        originX, scaleX, originY, scaleY);
+                canvas.drawLines(lines, 0, pointsCount, paint);
+            }
         }
     }
 
-    @SuppressWarnings("ConstantConditions")
-    private void drawSelectedPoint(Canvas canvas, Entity entity) {
-        float x = selectedPoint.x;
-        float y = selectedPoint.coordsY.get(entity);
-
-        int height = getHeight();
-        if (y + selectedCircleRadius > height) {
-            y = height - selectedCircleRadius;
+    // Screen x of a point calculated from the bounds rather than
+    // from the x of the first point, which is far off the screen
+    // and imprecise on long series at a high zoom
+    private float pointX(int pointIndex) {
+        if (state == NavigationState.MOVING_LEFT_BOUND) {
+            return getWidth() - paddingHorizontal -
+                    coordsScaleX * (boundsRight - pointIndex);
         }
+        return paddingHorizontal + coordsScaleX * (pointIndex - boundsLeft);
+    }
 
-        selectedCirclePaint.setColor(entity.color);
-        canvas.drawCircle(x, y, selectedCircleRadius, selectedCirclePaint);
+    private float coordX(int pointIndex) {
+        return coordsOriginX + coordsScaleX * pointIndex;
+    }
 
-        selectedCirclePaint.setColor(chartBackground);
-        canvas.drawCircle(x, y, selectedCircleRadius * 0.6f, selectedCirclePaint);
+    private float coordY(Entity entity, int pointIndex) {
+        int index = entity.index;
+        return coordsOriginY[index] - coordsScaleY[index] * entity.values[pointIndex];
     }
 
     public void updateValues(Entity entity, int min, int max) {
-        minValues.put(entity, min);
-        maxValues.put(entity, max);
+        minValues[entity.index] = min;
+        maxValues[entity.index] = max;
     }
 
-    @Override @SuppressWarnings("ConstantConditions")
+    @Override
     protected void onDraw(Canvas canvas) {
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         // todo move non drawing-related code away from onDraw
         if (triggerAnimationOnEntityChange) {
             triggerAnimationOnEntityChange = false;
             for (Entity entity: entities) {
                 startGraphAnimator(entity,
-                        maxValues.get(entity),
-                        minValues.get(entity));
+                        maxValues[entity.index],
+                        minValues[entity.index]);
             }
         }
         else {
             for (Entity entity: entities) {
-                if (scaleAnimators.get(entity) == null &&
-                        (currentMaxValues.get(entity) == 0 || state == NavigationState.IDLE)) {
-                    currentMaxValues.put(entity, maxValues.get(entity));
-                    currentMinValues.put(entity, minValues.get(entity));
+                int index = entity.index;
+                if (!scaleTweens[index].isRunning() &&
+                        (currentMaxValues[index] == 0 || state == NavigationState.IDLE)) {
+                    currentMaxValues[index] = maxValues[index];
+                    currentMinValues[index] = minValues[index];
                 }
                 if (state != NavigationState.IDLE && hasDrawn &&
-                        (!maxValues.get(entity).equals(nextMaxValues.get(entity)) ||
-                                !minValues.get(entity).equals(nextMinValues.get(entity)))) {
-                    startGraphAnimator(entity, maxValues.get(entity), minValues.get(entity));
+                        (maxValues[index] != nextMaxValues[index] ||
+                                minValues[index] != nextMinValues[index])) {
+                    startGraphAnimator(entity, maxValues[index], minValues[index]);
                 }
             }
         }
 
-        if (selectedPoint.isReady()) {
-            float x = selectedPoint.x;
-
-            canvas.drawLine(x, 0, x, getHeight(), selectedLinePaint);
-        }
-
         for (Entity entity: entities) {
             if (entity.isVisible() || entity == animatedEntity) {
                 drawPlot(canvas, entity);
@@ -541,10 +456,9 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
                     break;
                 }
             }
-            if (pointCoordsByEntity.containsKey(visibleEntity)) {
-                Coord[] coords = pointCoordsByEntity.get(visibleEntity);
-                if (coords != null && coords.length > selectedPointIndex) {
-                    selectedPoint.x = coords[selectedPointIndex].x;
+            if (visibleEntity != null) {
+                if (selectedPointIndex < horizontalAxis.size()) {
+                    selectedPoint.x = coordX(selectedPointIndex);
                     showSelectedPoint();
                 }
             }
@@ -558,10 +472,12 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
     }
 
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        this.bounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
         resetSelectedPoint();
-        postInvalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     @Override
@@ -571,20 +487,9 @@ public class ScaledLinePlotView extends FrameLayout implements MainPlotView {
     }
 
     private void resetSelectedPoint() {
-        setLayerType(LAYER_TYPE_HARDWARE, null);
         selectedPoint.reset();
         selectedPointViewCallback.hide();
         selectedPointIndex = -1;
     }
 
-    private static class Coord {
-        public float x;
-        public float y;
-
-        public void update(float x, float y) {
-            this.x = x;
-            this.y = y;
-        }
-    }
-
 }
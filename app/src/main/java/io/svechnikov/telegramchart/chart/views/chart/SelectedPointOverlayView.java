@@ -0,0 +1,110 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.content.res.TypedArray;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.view.View;
+
+import io.svechnikov.telegramchart.R;
+import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+
+// Draws the selection line and circles of the line charts above the plot.
+// The plot keeps its hardware layer while the selection is moved,
+// only this view is redrawn
+class SelectedPointOverlayView extends View {
+
+    private final int selectedCircleRadius;
+    private final Paint selectedCirclePaint = new Paint();
+    private final Paint selectedLinePaint = new Paint();
+    private final int chartBackground;
+
+    private SelectedPoint point;
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
+    private boolean drawnPoint;
+
+    SelectedPointOverlayView(Context context) {
+        super(context);
+
+        Resources r = context.getResources();
+
+        int[] style = {
+                R.attr.chartBackground,
+                R.attr.dividerColor};
+        TypedArray ta = context.obtainStyledAttributes(style);
+        chartBackground = ta.getColor(0, Color.WHITE);
+        int dividerColor = ta.getColor(1, Color.GRAY);
+        ta.recycle();
+
+        selectedCirclePaint.setStyle(Paint.Style.FILL);
+        selectedLinePaint.setStyle(Paint.Style.STROKE);
+        selectedLinePaint.setStrokeWidth(r.getDimensionPixelSize(
+                R.dimen.chart_main_chart_divider_width));
+        selectedLinePaint.setColor(dividerColor);
+
+        selectedCircleRadius = r.getDimensionPixelSize(
+                R.dimen.chart_main_chart_selected_circle_radius);
+    }
+
+    void setPoint(SelectedPoint point) {
+        this.point = point;
+    }
+
+    void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
+    // Nothing has to be redrawn when a point that wasn't shown is reset,
+    // which happens on every frame of navigation
+    void onPointChanged() {
+        if (drawnPoint || point.isReady()) {
+            invalidationScheduler.invalidate(invalidationLayer,
+                    InvalidationScheduler.REASON_SELECTION);
+        }
+    }
+
+    @Override
+    public boolean hasOverlappingRendering() {
+        return false;
+    }
+
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        invalidationScheduler.onDrawn(invalidationLayer);
+
+        drawnPoint = point != null && point.isReady();
+        if (!drawnPoint) {
+            return;
+        }
+
+        float x = point.x;
+        int height = getHeight();
+
+        canvas.drawLine(x, 0, x, height, selectedLinePaint);
+
+        for (int i = 0; i < point.entities.length; i++) {
+            if (!point.contains(i)) {
+                continue;
+            }
+            float y = point.coordsY[i];
+
+            if (y + selectedCircleRadius > height) {
+                y = height - selectedCircleRadius;
+            }
+
+            selectedCirclePaint.setColor(point.entities[i].color);
+            canvas.drawCircle(x, y, selectedCircleRadius, selectedCirclePaint);
+
+            selectedCirclePaint.setColor(chartBackground);
+            canvas.drawCircle(x, y, selectedCircleRadius * 0.6f, selectedCirclePaint);
+        }
+    }
+}
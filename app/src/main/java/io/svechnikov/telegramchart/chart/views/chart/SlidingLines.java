@@ -0,0 +1,119 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+
+// Screen segments of the visible window of a series kept in a ring
+// by point index, for the frames where only the bounds move. x is measured
+// from a base point near the window, so it stays within a few screen widths
+// however long the series is. While the chart is panned the scales stay
+// the same, so the segments of the previous frames are reused, the canvas
+// is translated to the base point and only the points coming into view
+// are mapped. Frames which change a scale aren't drawn from here,
+// the segments are mapped again from a new base on the next pan
+class SlidingLines {
+
+    // Bounds of a moving selection keep their width only up to float
+    // rounding, so close scales are treated as the same one
+    private static final float SCALE_TOLERANCE = 1e-4f;
+
+    private final MatrixLines matrixLines = new MatrixLines();
+    private float[] lines = new float[0];
+    private int capacity;
+    // mapped segments are [left, right)
+    private int left;
+    private int right;
+    private int base;
+
+    private float scaleX;
+    private float originY;
+    private float scaleY;
+
+    // Returns false if the scales differ from the ones of the previous
+    // frame, the mapped segments are dropped then
+    boolean setScales(float scaleX, float originY, float scaleY) {
+        if (Math.abs(this.scaleX - scaleX) <= scaleX * SCALE_TOLERANCE &&
+                this.originY == originY &&
+                this.scaleY == scaleY) {
+            return true;
+        }
+        this.scaleX = scaleX;
+        this.originY = originY;
+        this.scaleY = scaleY;
+        clear();
+        return false;
+    }
+
+    // Makes the segments [left, right) ready to be drawn,
+    // segments are in the data space of MatrixLines
+    void update(float[] segments, int left, int right) {
+        if (capacity == 0 || right - left > capacity) {
+            // a bit more than the window, so small changes
+            // of the bounds' width don't allocate again
+            capacity = (right - left) * 5 / 4 + 1;
+            lines = new float[capacity * 4];
+            clear();
+        }
+        if (right <= this.left || left >= this.right ||
+                Math.abs(left - base) > capacity) {
+            base = left;
+            map(segments, left, right);
+        }
+        else {
+            if (left < this.left) {
+                map(segments, left, this.left);
+            }
+            if (right > this.right) {
+                map(segments, this.right, right);
+            }
+        }
+        this.left = left;
+        this.right = right;
+    }
+
+    // baseX is the screen x of getBase(), the segments are stretched
+    // from the scale they were mapped with to scaleX
+    void draw(Canvas canvas, Paint paint, float baseX, float scaleX) {
+        canvas.save();
+        canvas.translate(baseX, 0);
+        float stretchX = scaleX / this.scaleX;
+        if (stretchX != 1) {
+            canvas.scale(stretchX, 1);
+        }
+        int first = slot(left);
+        int count = right - left;
+        int tail = Math.min(count, capacity - first);
+        canvas.drawLines(lines, first * 4, tail * 4, paint);
+        if (count > tail) {
+            canvas.drawLines(lines, 0, (count - tail) * 4, paint);
+        }
+        canvas.restore();
+    }
+
+    // The point x of the segments is measured from
+    int getBase() {
+        return base;
+    }
+
+    void clear() {
+        left = 0;
+        right = 0;
+    }
+
+    // One or two runs of the ring, split where it wraps
+    private void map(float[] segments, int left, int right) {
+        float originX = -base * scaleX;
+        int first = slot(left);
+        int tail = Math.min(right - left, capacity - first);
+        matrixLines.map(segments, lines, first * 4, left, left + tail,
+                originX, scaleX, originY, scaleY);
+        if (left + tail < right) {
+            matrixLines.map(segments, lines, 0, left + tail, right,
+                    originX, scaleX, originY, scaleY);
+        }
+    }
+
+    private int slot(int pointIndex) {
+        return pointIndex % capacity;
+    }
+}
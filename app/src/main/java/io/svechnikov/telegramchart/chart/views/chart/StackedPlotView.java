@@ -1,8 +1,5 @@
 package io.svechnikov.telegramchart.chart.views.chart;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.graphics.Canvas;
@@ -15,24 +12,28 @@ import android.view.MotionEvent;
 import android.widget.FrameLayout;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.ScrollListener;
 import io.svechnikov.telegramchart.chart.data.Axis;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
-import io.svechnikov.telegramchart.chart.data.NavigationBounds;
+import io.svechnikov.telegramchart.chart.data.ExtremaPyramid;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
 import io.svechnikov.telegramchart.chart.data.SelectedPoint;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+import io.svechnikov.telegramchart.chart.data.StackedTotals;
 import io.svechnikov.telegramchart.chart.views.SelectedPointViewCallback;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
 public class StackedPlotView extends FrameLayout
         implements MainPlotView {
 
-    private NavigationBounds bounds;
+    // in axis units, both are inclusive
+    private float boundsLeft;
+    private float boundsRight;
     private NavigationState state = NavigationState.IDLE;
     private int selectedPointIndex = -1;
     private boolean showSelectedPointWhenReady;
@@ -42,63 +43,46 @@ public class StackedPlotView extends FrameLayout
     private int nextMaxValue;
     private int prevMaxValue;
 
-    private ValueAnimator scaleAnimator;
+    private Tween scaleTween;
 
     private final int topPadding;
     private final int paddingHorizontal;
 
     private final List<Entity> entities = new ArrayList<>();
-    private final Map<Entity, Paint> paints = new HashMap<>();
+    private Paint[] paints;
     private int elementsCount = -1;
     private boolean hasDrawn;
 
-    private boolean animationCanceled;
     private Axis horizontalAxis;
     private Entity animatedEntity;
     private float[][] lines;
+    private final VertexMesh mesh = new VertexMesh();
+    private StackedTotals stackedTotals;
     private boolean triggerAnimationOnEntityChange = false;
     private final GestureDetector gestureDetector;
 
-    private Map<Entity, float[]> pointCoordsByEntity = new HashMap<>();
+    // the last drawn transform, selection coordinates are calculated from it
+    private float coordsOriginX;
+    private float coordsScaleX;
     private final SelectedPoint selectedPoint = new SelectedPoint();
     private final ScrollListener scrollListener = new ScrollListener();
     private SelectedPointViewCallback selectedPointViewCallback;
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
+
+    private final Tween.Listener scaleTweenListener = new Tween.Listener() {
+        @Override
+        public void onTweenUpdate(Tween tween) {
+            float fraction = tween.getAnimatedFraction();
+            currentMaxValue = (int)(prevMaxValue +
+                    (nextMaxValue - prevMaxValue) * fraction);
+        }
 
-    private final ValueAnimator.AnimatorUpdateListener animatorUpdateListener =
-            new ValueAnimator.AnimatorUpdateListener() {
-                @Override
-                public void onAnimationUpdate(ValueAnimator animation) {
-                    float fraction = animation.getAnimatedFraction();
-                    currentMaxValue = (int)(prevMaxValue +
-                            (nextMaxValue - prevMaxValue) * fraction);
-                    invalidate();
-                }
-            };
-    private final ValueAnimator.AnimatorListener animatorListener =
-            new Animator.AnimatorListener() {
-                @Override
-                public void onAnimationStart(Animator animation) {
-                    animationCanceled = false;
-                }
-
-                @Override
-                public void onAnimationEnd(Animator animation) {
-                    animatedEntity = null;
-                    if (!animationCanceled) {
-                        scaleAnimator = null;
-                    }
-                }
-
-                @Override
-                public void onAnimationCancel(Animator animation) {
-                    animationCanceled = true;
-                }
-
-                @Override
-                public void onAnimationRepeat(Animator animation) {
-
-                }
-            };
+        @Override
+        public void onTweenEnd(Tween tween) {
+            animatedEntity = null;
+        }
+    };
 
     public StackedPlotView(Context context) {
         this(context, null);
@@ -159,43 +143,37 @@ public class StackedPlotView extends FrameLayout
         return selectedPointIndex;
     }
 
-    @SuppressWarnings("all")
     private void findSelectedPoint(float x) {
-        int left = (int)bounds.left;
-        float closestDistance = Float.MAX_VALUE;
-        Entity visibleEntity = null;
-        for (Entity entity: entities) {
-            if (entity.isVisible()) {
-                visibleEntity = entity;
-                break;
-            }
+        if (coordsScaleX == 0) {
+            // nothing has been drawn yet
+            return;
         }
-        float[] coords = pointCoordsByEntity.get(visibleEntity);
-
-        float step = coords[left + 1] - coords[left];
-        float delta = coords[left];
-        selectedPointIndex = (int)(Math.round((x - delta) / step) + left);
+        selectedPointIndex = Math.round((x - coordsOriginX) / coordsScaleX);
 
         if (selectedPointIndex < 0 ||
-                selectedPointIndex >= horizontalAxis.values.length) {
+                selectedPointIndex >= horizontalAxis.size()) {
             selectedPointIndex = -1;
             return;
         }
 
-        if (selectedPoint.x == coords[selectedPointIndex]) {
+        if (selectedPoint.x == coordX(selectedPointIndex)) {
             return;
         }
-        if (coords[selectedPointIndex] < 0) {
+        if (coordX(selectedPointIndex) < 0) {
             selectedPointIndex++;
         }
-        if (coords[selectedPointIndex] > getWidth()) {
+        if (coordX(selectedPointIndex) > getWidth()) {
             selectedPointIndex--;
         }
-        selectedPoint.x = coords[selectedPointIndex];
+        selectedPoint.x = coordX(selectedPointIndex);
 
         showSelectedPoint();
     }
 
+    private float coordX(int pointIndex) {
+        return coordsOriginX + coordsScaleX * pointIndex;
+    }
+
     @SuppressWarnings("all")
     private void showSelectedPoint() {
         for (Entity entity: entities) {
@@ -204,13 +182,13 @@ public class StackedPlotView extends FrameLayout
                         entity.values[selectedPointIndex]);
             }
         }
-        if (selectedPoint.values.isEmpty()) {
+        if (selectedPoint.isEmpty()) {
             showSelectedPointWhenReady = false;
             resetSelectedPoint();
             return;
         }
         selectedPoint.title =
-                horizontalAxis.values[selectedPointIndex].selectedName;
+                horizontalAxis.selectedName(selectedPointIndex);
         selectedPointViewCallback.show(!showSelectedPointWhenReady);
         showSelectedPointWhenReady = false;
         // on some devices there might be blank areas
@@ -218,7 +196,8 @@ public class StackedPlotView extends FrameLayout
         // It has something to do with hw processing.
         // So we temporarily disable hw layer
         setLayerType(LAYER_TYPE_NONE, null);
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_SELECTION);
     }
 
     @Override
@@ -231,8 +210,22 @@ public class StackedPlotView extends FrameLayout
         this.horizontalAxis = horizontalAxis;
     }
 
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        scaleTween = new Tween(clock, 200, this, scaleTweenListener);
+    }
+
     @Override
     public void setChartData(ChartData chartData) {
+        paints = new Paint[chartData.entities.size()];
+
         for (Entity entity: chartData.entities) {
             if (elementsCount == -1) {
                 elementsCount = entity.values.length;
@@ -245,26 +238,15 @@ public class StackedPlotView extends FrameLayout
             Paint paint = new Paint();
             paint.setStyle(Paint.Style.STROKE);
             paint.setColor(entity.color);
-            paints.put(entity, paint);
-
-            float[] coords = new float[entity.values.length];
-            pointCoordsByEntity.put(entity, coords);
+            paints[entity.index] = paint;
         }
     }
 
     private void startGraphAnimator(int maxValue) {
-        if (scaleAnimator != null) {
-            scaleAnimator.cancel();
-        }
-
         prevMaxValue = currentMaxValue;
         nextMaxValue = maxValue;
 
-        scaleAnimator = ObjectAnimator.ofInt(0, 1);
-        scaleAnimator.addUpdateListener(animatorUpdateListener);
-        scaleAnimator.addListener(animatorListener);
-        scaleAnimator.setDuration(200);
-        scaleAnimator.start();
+        scaleTween.start();
     }
 
     @Override
@@ -274,11 +256,16 @@ public class StackedPlotView extends FrameLayout
             triggerAnimationOnEntityChange = true;
         }
         resetSelectedPoint();
-        invalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_VISIBILITY);
     }
 
     private void allocateLines() {
-        lines = new float[entities.size()][horizontalAxis.values.length * 4];
+        lines = new float[entities.size()][horizontalAxis.size() * 4];
+    }
+
+    public void setStackedTotals(StackedTotals stackedTotals) {
+        this.stackedTotals = stackedTotals;
     }
 
     public void updateMaxValue(int max) {
@@ -287,13 +274,15 @@ public class StackedPlotView extends FrameLayout
 
     @Override
     protected void onDraw(Canvas canvas) {
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         // todo move non drawing-related code away from onDraw
         if (triggerAnimationOnEntityChange) {
             triggerAnimationOnEntityChange = false;
             startGraphAnimator(maxValue);
         }
         else {
-            if (scaleAnimator == null &&
+            if (!scaleTween.isRunning() &&
                     (currentMaxValue == 0 || state == NavigationState.IDLE)) {
                 currentMaxValue = maxValue;
             }
@@ -314,10 +303,9 @@ public class StackedPlotView extends FrameLayout
                     break;
                 }
             }
-            if (pointCoordsByEntity.containsKey(visibleEntity)) {
-                float[] coords = pointCoordsByEntity.get(visibleEntity);
-                if (coords != null && coords.length > selectedPointIndex) {
-                    selectedPoint.x = coords[selectedPointIndex];
+            if (visibleEntity != null) {
+                if (selectedPointIndex < horizontalAxis.size()) {
+                    selectedPoint.x = coordX(selectedPointIndex);
                     showSelectedPoint();
                 }
             }
@@ -335,7 +323,7 @@ public class StackedPlotView extends FrameLayout
         float width = getWidth();
         float height = getHeight();
 
-        float barWidth = (width - paddingHorizontal * 2) / (bounds.getWidth());
+        float barWidth = (width - paddingHorizontal * 2) / (boundsRight - boundsLeft + 1);
         float scaleY = (height - topPadding) / currentMaxValue;
         int offBoundsElements = (int)Math.ceil(paddingHorizontal / barWidth);
 
@@ -343,118 +331,150 @@ public class StackedPlotView extends FrameLayout
             allocateLines();
         }
 
-        int left = Math.max((int)bounds.left - offBoundsElements - 1, 0);
-        int right = Math.min((int)Math.ceil(bounds.right) + offBoundsElements + 1,
+        int left = Math.max((int)boundsLeft - offBoundsElements - 1, 0);
+        int right = Math.min((int)Math.ceil(boundsRight) + offBoundsElements + 1,
                 horizontalAxis.size() - 1);
 
-        float deltaLineX1 = width - barWidth * bounds.right - paddingHorizontal;
-
-        for (int i = left; i < right; i++) {
-            float yFrom = height;
-            int index = (i - left) * 4;
+        float deltaLineX1 = width - barWidth * boundsRight - paddingHorizontal;
+        coordsOriginX = deltaLineX1;
+        coordsScaleX = barWidth;
+
+        ExtremaPyramid pyramid = stackedTotals.getPyramid();
+        int level = pyramid.levelFor(1 / barWidth);
+        int pointsCount;
+        float strokeWidth;
+
+        if (level > 0) {
+            // Bars are thinner than a pixel, so neighbours are merged into
+            // buckets drawn with the stack of the bucket's highest point.
+            // Buckets are aligned to absolute indices and a coarser bucket
+            // keeps the highest of its halves, so the outline doesn't jump
+            // when the window is moved or the level changes
+            int bucketSize = 1 << level;
+            int firstBucket = left >> level;
+            int lastBucket = (right - 1) >> level;
+
+            for (int b = firstBucket; b <= lastBucket; b++) {
+                float x = (b * bucketSize + (bucketSize - 1) / 2f) * barWidth +
+                        deltaLineX1;
+                stackBar(pyramid.argMax(level, b), x,
+                        (b - firstBucket) * 4, height, scaleY);
+            }
 
-            for (int j = 0; j < entities.size(); j++) {
-                Entity entity = entities.get(j);
-                if (!entity.isVisible() && entity != animatedEntity) {
-                    continue;
-                }
-                int value = entity.values[i];
-                if (entity == animatedEntity) {
-                    if (entity.isVisible()) {
-                        value *= scaleAnimator.getAnimatedFraction();
-                    }
-                    else {
-                        value *= (1 - scaleAnimator.getAnimatedFraction());
-                    }
-                }
-                float yTo = yFrom - value * scaleY;
+            pointsCount = (lastBucket - firstBucket + 1) * 4;
+            strokeWidth = barWidth * bucketSize;
+        }
+        else {
+            for (int i = left; i < right; i++) {
                 float x = i * barWidth + deltaLineX1;
+                stackBar(i, x, (i - left) * 4, height, scaleY);
+            }
+
+            pointsCount = (right - left) * 4;
+            strokeWidth = barWidth;
+        }
 
-                float[] selectableCoords = pointCoordsByEntity.get(entity);
-                selectableCoords[i] = x;
+        boolean drawMesh = VertexMesh.isSupported(canvas);
+        int alpha = selectedPointIndex != -1 ? 127 : 255;
+
+        if (drawMesh) {
+            drawMesh(canvas, pointsCount / 4, strokeWidth, alpha);
+        }
+        else {
+            drawLines(canvas, pointsCount, strokeWidth, alpha);
+        }
 
-                float[] lines = this.lines[j];
-                lines[index] = x;
-                lines[index + 1] = yFrom;
-                lines[index + 2] = x;
-                lines[index + 3] = yTo;
+        if (selectedPointIndex != -1) {
+            float x = selectedPointIndex * barWidth + deltaLineX1;
+            stackBar(selectedPointIndex, x, 0, height, scaleY);
 
-                yFrom = yTo;
+            if (drawMesh) {
+                drawMesh(canvas, 1, barWidth, 255);
+            }
+            else {
+                drawLines(canvas, 4, barWidth, 255);
             }
         }
+    }
+
+    // Turns the segments put by stackBar() into rectangles of all the
+    // visible entities, so they are drawn at once without changing the paints
+    private void drawMesh(Canvas canvas, int barsCount, float barWidth, int alpha) {
+        float halfWidth = barWidth / 2;
+        mesh.reset(barsCount * entities.size());
 
-        int pointsCount = (right - left) * 4;
+        for (int i = 0; i < entities.size(); i++) {
+            Entity entity = entities.get(i);
+            if (!entity.isVisible() && entity != animatedEntity) {
+                continue;
+            }
+            int color = VertexMesh.withAlpha(entity.color, alpha);
+            float[] lines = this.lines[i];
+
+            for (int j = 0; j < barsCount * 4; j += 4) {
+                float x = lines[j];
+                mesh.addRect(x - halfWidth, lines[j + 3],
+                        x + halfWidth, lines[j + 1], color);
+            }
+        }
+
+        mesh.draw(canvas);
+    }
+
+    private void drawLines(Canvas canvas, int pointsCount, float barWidth, int alpha) {
         for (int i = 0; i < entities.size(); i++) {
             Entity entity = entities.get(i);
             if (entity.isVisible() || entity == animatedEntity) {
-                Paint paint = paints.get(entity);
+                Paint paint = paints[entity.index];
                 paint.setStrokeWidth(barWidth);
-                float[] lines = this.lines[i];
+                paint.setAlpha(alpha);
 
-                if (selectedPointIndex != -1) {
-                    paint.setAlpha(127);
-                }
-                else {
-                    paint.setAlpha(255);
-                }
-
-                canvas.drawLines(lines, 0, pointsCount, paint);
+                canvas.drawLines(lines[i], 0, pointsCount, paint);
             }
         }
+    }
 
-        if (selectedPointIndex != -1) {
-            float yFrom = height;
-
-            for (int j = 0; j < entities.size(); j++) {
-                Entity entity = entities.get(j);
-                if (!entity.isVisible() && entity != animatedEntity) {
-                    continue;
+    // Puts a segment per entity for the bar of the given point to lines at offset
+    private void stackBar(int pointIndex,
+                          float x,
+                          int offset,
+                          float bottom,
+                          float scaleY) {
+        float yFrom = bottom;
+
+        for (int j = 0; j < entities.size(); j++) {
+            Entity entity = entities.get(j);
+            if (!entity.isVisible() && entity != animatedEntity) {
+                continue;
+            }
+            int value = entity.values[pointIndex];
+            if (entity == animatedEntity) {
+                if (entity.isVisible()) {
+                    value *= scaleTween.getAnimatedFraction();
                 }
-                int value = entity.values[selectedPointIndex];
-                if (entity == animatedEntity) {
-                    if (entity.isVisible()) {
-                        value *= scaleAnimator.getAnimatedFraction();
-                    }
-                    else {
-                        value *= (1 - scaleAnimator.getAnimatedFraction());
-                    }
+                else {
+                    value *= (1 - scaleTween.getAnimatedFraction());
                 }
-                float yTo = yFrom - value * scaleY;
-                float x = selectedPointIndex * barWidth + deltaLineX1;
-
-                float[] selectableCoords = pointCoordsByEntity.get(entity);
-                selectableCoords[selectedPointIndex] = x;
-
-                float[] lines = this.lines[j];
-                lines[0] = x;
-                lines[1] = yFrom;
-                lines[2] = x;
-                lines[3] = yTo;
-
-                yFrom = yTo;
             }
+            float yTo = yFrom - value * scaleY;
 
-            pointsCount = 4;
-            for (int i = 0; i < entities.size(); i++) {
-                Entity entity = entities.get(i);
-                if (entity.isVisible() || entity == animatedEntity) {
-                    Paint paint = paints.get(entity);
-                    paint.setStrokeWidth(barWidth);
-                    float[] lines = this.lines[i];
-
-                    paint.setAlpha(255);
+            float[] lines = this.lines[j];
+            lines[offset] = x;
+            lines[offset + 1] = yFrom;
+            lines[offset + 2] = x;
+            lines[offset + 3] = yTo;
 
-                    canvas.drawLines(lines, 0, pointsCount, paint);
-                }
-            }
+            yFrom = yTo;
         }
     }
 
     @Override
-    public void onNavigationBoundsChanged(NavigationBounds bounds) {
-        this.bounds = bounds;
+    public void onNavigationBoundsChanged(float left, float right) {
+        boundsLeft = left;
+        boundsRight = right;
         resetSelectedPoint();
-        postInvalidate();
+        invalidationScheduler.invalidate(invalidationLayer,
+                InvalidationScheduler.REASON_BOUNDS);
     }
 
     @Override
@@ -0,0 +1,79 @@
+package io.svechnikov.telegramchart.chart.views.chart;
+
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.os.Build;
+
+// Triangles of all the visible series with a color per vertex,
+// so a whole plot is drawn with a single drawVertices() call.
+// The buffers grow when needed and are reused between frames
+class VertexMesh {
+
+    private static final int FLOATS_PER_QUAD = 12;
+
+    private final Paint paint = new Paint();
+    private float[] vertices = new float[0];
+    private int[] colors = new int[0];
+    private int count;
+
+    // Hardware accelerated canvases ignore drawVertices() before Q
+    static boolean isSupported(Canvas canvas) {
+        return !canvas.isHardwareAccelerated() || Build.VERSION.SDK_INT >= 29;
+    }
+
+    static int withAlpha(int color, int alpha) {
+        return (color & 0x00ffffff) | (alpha << 24);
+    }
+
+    void reset(int quadsCount) {
+        int capacity = quadsCount * FLOATS_PER_QUAD;
+        if (vertices.length < capacity) {
+            vertices = new float[capacity];
+            colors = new int[capacity / 2];
+        }
+        count = 0;
+    }
+
+    void addRect(float left, float top, float right, float bottom, int color) {
+        addQuad(left, top, right, top, right, bottom, left, bottom, color);
+    }
+
+    // Corners go around the quad, it is split along the x1-x3 diagonal
+    void addQuad(float x1, float y1,
+                 float x2, float y2,
+                 float x3, float y3,
+                 float x4, float y4,
+                 int color) {
+        float[] v = vertices;
+        int i = count;
+
+        v[i] = x1;
+        v[i + 1] = y1;
+        v[i + 2] = x2;
+        v[i + 3] = y2;
+        v[i + 4] = x3;
+        v[i + 5] = y3;
+
+        v[i + 6] = x1;
+        v[i + 7] = y1;
+        v[i + 8] = x3;
+        v[i + 9] = y3;
+        v[i + 10] = x4;
+        v[i + 11] = y4;
+
+        int c = i / 2;
+        for (int j = 0; j < 6; j++) {
+            colors[c + j] = color;
+        }
+        count += FLOATS_PER_QUAD;
+    }
+
+    void draw(Canvas canvas) {
+        if (count == 0) {
+            return;
+        }
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, count,
+                vertices, 0, null, 0, colors, 0,
+                null, 0, 0, paint);
+    }
+}
@@ -10,6 +10,7 @@ import android.graphics.Paint;
 import android.graphics.Path;
 import android.util.AttributeSet;
 import android.util.DisplayMetrics;
+import android.view.Choreographer;
 import android.view.GestureDetector;
 import android.view.MotionEvent;
 import android.view.View;
@@ -28,11 +29,22 @@ import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
 import io.svechnikov.telegramchart.chart.data.NavigationBounds;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
 import io.svechnikov.telegramchart.chart.views.ViewUtils;
 
 public class NavigationChartView extends FrameLayout {
 
     private NavigationPlotView plotView;
+    private AnimationClock animationClock;
+    private boolean boundsDispatchScheduled;
+    private final Choreographer.FrameCallback boundsDispatch =
+            new Choreographer.FrameCallback() {
+                @Override
+                public void doFrame(long frameTimeNanos) {
+                    boundsDispatchScheduled = false;
+                    notifyBoundsListener();
+                }
+            };
     private boolean boundsInit = false;
     private final float[] bounds = new float[]{0, 0}; // bounds in axis units
 
@@ -100,6 +112,11 @@ public class NavigationChartView extends FrameLayout {
         gestureDetector = new GestureDetector(context, scrollListener);
     }
 
+    // must be set before the chart data
+    public void setAnimationClock(AnimationClock animationClock) {
+        this.animationClock = animationClock;
+    }
+
     public void setChartData(ChartData chartData) {
         switch (chartData.type) {
             case ChartData.TYPE_LINE:
@@ -121,6 +138,7 @@ public class NavigationChartView extends FrameLayout {
                 ViewGroup.LayoutParams.MATCH_PARENT,
                 ViewGroup.LayoutParams.MATCH_PARENT));
 
+        plotView.setAnimationClock(animationClock);
         plotView.setChartData(chartData);
 
         for (Entity entity: chartData.entities) {
@@ -200,12 +218,26 @@ public class NavigationChartView extends FrameLayout {
         return true;
     }
 
+    // The bounds are passed as primitives, so nothing is allocated per frame
+    // and every listener keeps its own copy of them until the next dispatch
     private void notifyBoundsListener() {
+        if (boundsDispatchScheduled) {
+            boundsDispatchScheduled = false;
+            Choreographer.getInstance().removeFrameCallback(boundsDispatch);
+        }
         float left = bounds[0];
         float right = bounds[1] - 1; // decrement since right bound is inclusive
-        NavigationBounds bounds = new NavigationBounds(left, right);
         for (NavigationBoundsListener listener: boundsListeners) {
-            listener.onNavigationBoundsChanged(bounds);
+            listener.onNavigationBoundsChanged(left, right);
+        }
+    }
+
+    // Touch events may come several times per frame while dragging,
+    // so the bounds are delivered once at the start of the next frame
+    private void scheduleBoundsDispatch() {
+        if (!boundsDispatchScheduled) {
+            boundsDispatchScheduled = true;
+            Choreographer.getInstance().postFrameCallback(boundsDispatch);
         }
     }
 
@@ -360,6 +392,10 @@ public class NavigationChartView extends FrameLayout {
         if (state == currentState) {
             return;
         }
+        // listeners get the last bounds of the previous state first
+        if (boundsDispatchScheduled) {
+            notifyBoundsListener();
+        }
         currentState = state;
         for (NavigationStateListener listener: stateListeners) {
             listener.onNavigationStateChanged(state);
@@ -393,7 +429,7 @@ public class NavigationChartView extends FrameLayout {
             bounds[0] = left;
 
             invalidate();
-            notifyBoundsListener();
+            scheduleBoundsDispatch();
         }
     }
 
@@ -421,7 +457,7 @@ public class NavigationChartView extends FrameLayout {
             bounds[1] = right;
 
             invalidate();
-            notifyBoundsListener();
+            scheduleBoundsDispatch();
         }
     }
 
@@ -446,7 +482,7 @@ public class NavigationChartView extends FrameLayout {
             bounds[1] = right;
 
             invalidate();
-            notifyBoundsListener();
+            scheduleBoundsDispatch();
         }
     }
 
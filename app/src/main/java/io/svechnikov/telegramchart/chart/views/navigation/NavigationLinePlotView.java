@@ -1,32 +1,49 @@
 package io.svechnikov.telegramchart.chart.views.navigation;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
+import android.graphics.Matrix;
 import android.graphics.Paint;
 import android.util.AttributeSet;
 import android.view.View;
-import android.view.ViewGroup;
-import android.widget.FrameLayout;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
-public class NavigationLinePlotView extends FrameLayout implements NavigationPlotView {
+// Draws all the series in one view. At rest they are rendered into
+// a single bitmap, while a visibility change is animated the lines of each
+// series are mapped to its current scale and drawn
+public class NavigationLinePlotView extends View implements NavigationPlotView {
 
-    private final Map<Entity, PlotView> plotViews = new HashMap<>();
-    private ValueAnimator animator;
+    private Tween tween;
     private Entity animatedEntity;
     private boolean hasDrawn;
     private ChartData chartData;
+    private final int marginHorizontal;
+    private final int strokeWidth;
+
+    // per-entity state is indexed by Entity.index, lines are filled
+    // for the rendered scale and offset and reused for other ones
+    private Paint[] paints;
+    private float[][] lines;
+    private float[] scales;
+    private float[] offsetBottomRatios;
+    private float[] renderedScales;
+    private float[] renderedOffsetBottomRatios;
+    private float[] alphas;
+    // the lines mapped to the current scale, shared by all the entities
+    private float[] mappedLines;
+    private final Matrix matrix = new Matrix();
+
+    private final PlotBitmap bitmap = new PlotBitmap();
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
 
     public NavigationLinePlotView(@NonNull Context context) {
         this(context, null);
@@ -41,86 +58,91 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
                                   @Nullable AttributeSet attrs,
                                   int defStyleAttr) {
         super(context, attrs, defStyleAttr);
+
+        marginHorizontal = getResources().getDimensionPixelSize(
+                R.dimen.chart_padding_horizontal);
+        strokeWidth = getResources().getDimensionPixelSize(
+                R.dimen.chart_navigation_stroke_width);
     }
 
     @Override
-    protected void onMeasure(int widthMeasureSpec, int heightMeasureSpec) {
-        super.onMeasure(widthMeasureSpec, heightMeasureSpec);
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
 
-        updatePlotViews();
+        bitmap.invalidate();
+        if (renderedScales != null) {
+            // lines depend on the size, so they have to be filled again
+            Arrays.fill(renderedScales, -1);
+        }
+        updateScales();
+    }
+
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        tween = new Tween(clock, 200, this, new Tween.Listener() {
+            @Override
+            public void onTweenUpdate(Tween tween) {
+                updateScales();
+            }
+
+            @Override
+            public void onTweenEnd(Tween tween) {
+                animatedEntity = null;
+                // plots are rendered again at their final scale
+                updateScales();
+            }
+        });
     }
 
     @Override
     public void setChartData(ChartData chartData) {
         this.chartData = chartData;
 
-        int marginHorizontal = getResources().getDimensionPixelSize(
-                R.dimen.chart_padding_horizontal);
-        FrameLayout.LayoutParams lp = new FrameLayout.LayoutParams(
-                ViewGroup.LayoutParams.MATCH_PARENT,
-                ViewGroup.LayoutParams.MATCH_PARENT);
+        int entitiesCount = chartData.entities.size();
+
+        paints = new Paint[entitiesCount];
+        lines = new float[entitiesCount][];
+        scales = new float[entitiesCount];
+        offsetBottomRatios = new float[entitiesCount];
+        renderedScales = new float[entitiesCount];
+        renderedOffsetBottomRatios = new float[entitiesCount];
+        alphas = new float[entitiesCount];
+
+        Arrays.fill(renderedScales, -1);
 
+        int maxValuesCount = 0;
         for (Entity entity: chartData.entities) {
-            PlotView plotView = new PlotView(getContext());
-            plotView.setLayerType(LAYER_TYPE_HARDWARE, null);
-
-            lp.leftMargin = marginHorizontal;
-            lp.rightMargin = marginHorizontal;
-            addView(plotView, lp);
-            plotViews.put(entity, plotView);
-            plotView.setEntity(entity);
+            Paint paint = new Paint();
+            paint.setStyle(Paint.Style.STROKE);
+            paint.setColor(entity.color);
+            paint.setStrokeWidth(strokeWidth);
+            paints[entity.index] = paint;
+
+            lines[entity.index] = new float[entity.values.length * 4];
+            maxValuesCount = Math.max(maxValuesCount, entity.values.length);
         }
-        updatePlotViews();
+        mappedLines = new float[maxValuesCount * 4];
+        updateScales();
     }
 
     @Override
     public void onEntityChanged(Entity entity) {
         if (!hasDrawn) {
-            updatePlotViews();
+            updateScales();
             return;
         }
-        if (animator != null && animator.isRunning()) {
-            animator.cancel();
-        }
-
         animatedEntity = entity;
 
-        animator = ObjectAnimator.ofInt(1, 0)
-                .setDuration(200);
-
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                updatePlotViews();
-            }
-        });
-        animator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                animatedEntity = null;
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
+        tween.start();
+    }
 
-            }
-        });
-        animator.start();
+    private boolean isAnimating() {
+        return tween.isRunning();
     }
 
-    private void updatePlotViews() {
-        int height = getMeasuredHeight();
-        if (height == 0) {
+    private void updateScales() {
+        int height = getHeight();
+        if (height == 0 || chartData == null) {
             return;
         }
 
@@ -130,7 +152,7 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
         int animatedMaxValue = 0;
         int animatedMinValue = 0;
 
-        for (Entity entity: plotViews.keySet()) {
+        for (Entity entity: chartData.entities) {
             if (entity == animatedEntity) {
                 animatedMinValue = entity.minValue();
                 animatedMaxValue = entity.maxValue();
@@ -146,7 +168,7 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
         if (animatedEntity != null) {
             if (animatedMaxValue > maxValue) {
                 int delta = animatedMaxValue - maxValue;
-                float fraction = animator.getAnimatedFraction();
+                float fraction = tween.getAnimatedFraction();
                 if (!animatedEntity.isVisible()) {
                     // Animating scale up
                     maxValue += delta * (1 - fraction);
@@ -158,7 +180,7 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
             }
             if (animatedMinValue < minValue) {
                 int delta = minValue - animatedMinValue;
-                float fraction = animator.getAnimatedFraction();
+                float fraction = tween.getAnimatedFraction();
                 if (!animatedEntity.isVisible()) {
                     minValue -= delta * (1 - fraction);
                 }
@@ -168,21 +190,22 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
             }
         }
 
-        for (Map.Entry<Entity, PlotView> entrySet: plotViews.entrySet()) {
-            Entity entity = entrySet.getKey();
+        for (Entity entity: chartData.entities) {
             if (!entity.isVisible() && entity != animatedEntity) {
                 continue;
             }
-            PlotView plotView = entrySet.getValue();
+            int index = entity.index;
+
             if (entity == animatedEntity) {
-                float alpha;
                 if (entity.isVisible()) {
-                    alpha = animator.getAnimatedFraction();
+                    alphas[index] = tween.getAnimatedFraction();
                 }
                 else {
-                    alpha = 1 - animator.getAnimatedFraction();
+                    alphas[index] = 1 - tween.getAnimatedFraction();
                 }
-                plotView.setAlpha(alpha);
+            }
+            else {
+                alphas[index] = 1;
             }
 
             float offsetBottom = (float)minValue / maxValue;
@@ -193,98 +216,124 @@ public class NavigationLinePlotView extends FrameLayout implements NavigationPlo
                 scale = 1 + offsetBottom;
             }
 
-            plotView.updateScale(scale, offsetBottom);
+            scales[index] = scale;
+            offsetBottomRatios[index] = offsetBottom;
         }
-    }
 
-    private class PlotView extends View {
-
-        private Entity entity;
-        private final Paint paint = new Paint();
-        private float[] lines;
-        private float scale = -1;
-        private float offsetBottomRatio;
-        private int maxValue;
+        invalidate();
+    }
 
-        public PlotView(Context context) {
-            this(context, null);
+    private void fillLines(Entity entity) {
+        int index = entity.index;
+        int width = getWidth() - marginHorizontal * 2;
+        int height = getHeight();
+        float scale = scales[index];
+        float[] lines = this.lines[index];
+
+        int maxValue = entity.maxValue();
+        int[] values = entity.values;
+        float scaleX = (float)width / values.length;
+        float scaleY = (float)height / maxValue * scale;
+        float top = height - scale * height;
+        float deltaY1 = top + scaleY * maxValue;
+        float deltaY2 = top + scaleY * maxValue;
+        float offsetBottom = height * offsetBottomRatios[index];
+        for (int i = 0; i < values.length - 1; i++) {
+            lines[i * 4] = i * scaleX + marginHorizontal;
+            lines[i * 4 + 1] = deltaY1 - scaleY * values[i] + offsetBottom;
+
+            lines[i * 4 + 2] = scaleX * i + scaleX + marginHorizontal;
+            lines[i * 4 + 3] = deltaY2 - scaleY * values[i + 1] + offsetBottom;
         }
 
-        public PlotView(Context context,
-                        @Nullable AttributeSet attrs) {
-            this(context, attrs, -1);
-        }
+        renderedScales[index] = scale;
+        renderedOffsetBottomRatios[index] = offsetBottomRatios[index];
+    }
 
-        public PlotView(Context context,
-                        @Nullable AttributeSet attrs,
-                        int defStyleAttr) {
-            super(context, attrs, defStyleAttr);
+    private boolean isRendered(Entity entity) {
+        int index = entity.index;
+        return renderedScales[index] == scales[index] &&
+                renderedOffsetBottomRatios[index] == offsetBottomRatios[index];
+    }
 
-            setLayerType(LAYER_TYPE_HARDWARE, null);
-        }
+    private void render() {
+        Canvas canvas = bitmap.startRendering(getWidth(), getHeight());
 
-        public void updateScale(float scale, float offsetBottomRatio) {
-            if (this.scale != scale || this.offsetBottomRatio != offsetBottomRatio) {
-                this.scale = scale;
-                this.offsetBottomRatio = offsetBottomRatio;
-                fillLines();
-                invalidate();
+        for (Entity entity: chartData.entities) {
+            if (!entity.isVisible()) {
+                continue;
+            }
+            if (!isRendered(entity)) {
+                fillLines(entity);
             }
+            Paint paint = paints[entity.index];
+            paint.setAlpha(255);
+            canvas.drawLines(lines[entity.index], paint);
         }
+    }
 
-        public void setEntity(Entity entity) {
-            this.entity = entity;
-            paint.setStyle(Paint.Style.STROKE);
-            paint.setColor(entity.color);
-            paint.setStrokeWidth(getResources().getDimensionPixelSize(
-                    R.dimen.chart_navigation_stroke_width));
-            maxValue = entity.maxValue();
-        }
+    // y = height * (1 + offsetBottomRatio) - height * scale * value / maxValue,
+    // so the rendered lines map to the current ones by y' = k * y + b.
+    // The points are mapped rather than the canvas scaled, a scaled canvas
+    // would scale the stroke width as well
+    private void drawTransformed(Canvas canvas) {
+        int height = getHeight();
 
-        private void fillLines() {
-            int width = getMeasuredWidth();
-            int height = getMeasuredHeight();
-            if (width == 0 || height == 0) {
-                return;
-            }
-            if (lines == null) {
-                lines = new float[entity.values.length * 4];
+        for (Entity entity: chartData.entities) {
+            if (!entity.isVisible() && entity != animatedEntity) {
+                continue;
             }
-            int[] values = entity.values;
-            float scaleX = (float)width / values.length;
-            float scaleY = (float)height / maxValue * scale;
-            float top = height - scale * height;
-            float deltaY1 = top + scaleY * maxValue;
-            float deltaY2 = top + scaleY * maxValue;
-            float offsetBottom = height * offsetBottomRatio;
-            for (int i = 0; i < values.length - 1; i++) {
-                lines[i * 4] = i * scaleX;
-                lines[i * 4 + 1] = deltaY1 - scaleY * values[i] + offsetBottom;
-
-                lines[i * 4 + 2] = scaleX * i + scaleX;
-                lines[i * 4 + 3] = deltaY2 - scaleY * values[i + 1] + offsetBottom;
+            int index = entity.index;
+            if (renderedScales[index] == -1) {
+                fillLines(entity);
             }
+
+            float k = scales[index] / renderedScales[index];
+            float b = height * (1 + offsetBottomRatios[index]) -
+                    k * height * (1 + renderedOffsetBottomRatios[index]);
+
+            Paint paint = paints[index];
+            paint.setAlpha((int)(alphas[index] * 255));
+
+            float[] lines = this.lines[index];
+            matrix.setScale(1, k);
+            matrix.postTranslate(0, b);
+            matrix.mapPoints(mappedLines, 0, lines, 0, lines.length / 2);
+            canvas.drawLines(mappedLines, 0, lines.length, paint);
         }
+    }
+
+    @Override
+    public boolean hasOverlappingRendering() {
+        return false;
+    }
 
-        @Override
-        public boolean hasOverlappingRendering() {
-            return false;
+    @Override
+    protected void onDraw(Canvas canvas) {
+        super.onDraw(canvas);
+
+        if (chartData == null || getWidth() == 0 || getHeight() == 0) {
+            return;
         }
 
-        @Override
-        protected void onDraw(Canvas canvas) {
-            super.onDraw(canvas);
+        hasDrawn = true;
 
-            if (scale == -1) {
-                return;
-            }
+        if (isAnimating()) {
+            drawTransformed(canvas);
+            return;
+        }
 
-            hasDrawn = true;
-            if (lines == null) {
-                fillLines();
+        boolean isRendered = bitmap.isValid();
+        for (Entity entity: chartData.entities) {
+            if (entity.isVisible() && !isRendered(entity)) {
+                isRendered = false;
+                break;
             }
-
-            canvas.drawLines(lines, paint);
         }
+        if (!isRendered) {
+            render();
+        }
+
+        bitmap.draw(canvas, bitmapPaint);
     }
 }
@@ -2,8 +2,10 @@ package io.svechnikov.telegramchart.chart.views.navigation;
 
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
 
 public interface NavigationPlotView {
     void setChartData(ChartData chartData);
     void onEntityChanged(Entity entity);
+    void setAnimationClock(AnimationClock clock);
 }
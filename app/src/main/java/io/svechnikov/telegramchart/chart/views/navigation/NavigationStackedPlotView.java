@@ -1,33 +1,33 @@
 package io.svechnikov.telegramchart.chart.views.navigation;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.graphics.Canvas;
 import android.graphics.Paint;
 import android.util.AttributeSet;
 import android.view.View;
 
-import java.util.HashMap;
-import java.util.Map;
-
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.data.ChartData;
 import io.svechnikov.telegramchart.chart.data.Entity;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
 public class NavigationStackedPlotView extends View implements NavigationPlotView {
 
-    private ValueAnimator animator;
-    private Entity animatedEntity;
+    private Tween tween;
     private boolean hasDrawn;
     private ChartData chartData;
     private float[][] lines;
-    private final Map<Entity, Paint> paints = new HashMap<>();
+    private Paint[] paints;
     private final int marginHorizontal;
 
+    // visibility changes cross-fade from the previous bitmap to the current one
+    private PlotBitmap bitmap = new PlotBitmap();
+    private PlotBitmap previousBitmap = new PlotBitmap();
+    private final Paint bitmapPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+
     public NavigationStackedPlotView(@NonNull Context context) {
         this(context, null);
     }
@@ -47,26 +47,72 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
 
     }
 
+    @Override
+    protected void onSizeChanged(int w, int h, int oldw, int oldh) {
+        super.onSizeChanged(w, h, oldw, oldh);
+
+        bitmap.invalidate();
+        previousBitmap.invalidate();
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
-        if (!hasDrawn) {
-            hasDrawn = true;
-            recalculateLines();
+        if (getWidth() == 0 || getHeight() == 0) {
+            return;
+        }
+
+        hasDrawn = true;
+
+        if (!bitmap.isValid()) {
+            render(bitmap);
+        }
+
+        if (tween.isRunning() && previousBitmap.isValid()) {
+            float fraction = tween.getAnimatedFraction();
+
+            bitmapPaint.setAlpha((int)((1 - fraction) * 255));
+            previousBitmap.draw(canvas, bitmapPaint);
+
+            bitmapPaint.setAlpha((int)(fraction * 255));
+            bitmap.draw(canvas, bitmapPaint);
+        }
+        else {
+            bitmapPaint.setAlpha(255);
+            bitmap.draw(canvas, bitmapPaint);
         }
+    }
+
+    private void render(PlotBitmap target) {
+        recalculateLines();
+
+        Canvas canvas = target.startRendering(getWidth(), getHeight());
 
         for (int i = 0; i < chartData.entities.size(); i++) {
             Entity entity = chartData.entities.get(i);
-            if (entity.isVisible() || entity == animatedEntity) {
-                Paint paint = paints.get(entity);
-                float[] lines = this.lines[i];
-
-                canvas.drawLines(lines, paint);
+            if (entity.isVisible()) {
+                canvas.drawLines(lines[i], paints[i]);
             }
         }
     }
 
+    @Override
+    public void setAnimationClock(AnimationClock clock) {
+        // the view is drawn cross-fading while the tween is running
+        tween = new Tween(clock, 200, this, new Tween.Listener() {
+            @Override
+            public void onTweenUpdate(Tween tween) {
+
+            }
+
+            @Override
+            public void onTweenEnd(Tween tween) {
+
+            }
+        });
+    }
+
     @Override
     public void setChartData(ChartData chartData) {
         this.chartData = chartData;
@@ -74,19 +120,20 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
         int linesCount = 4 * chartData.axis.size();
 
         lines = new float[chartData.entities.size()][linesCount];
+        paints = new Paint[chartData.entities.size()];
 
         for (int i = 0; i < chartData.entities.size(); i++) {
             Entity entity = chartData.entities.get(i);
             Paint paint = new Paint();
             paint.setStyle(Paint.Style.STROKE);
             paint.setColor(entity.color);
-            paints.put(entity, paint);
+            paints[i] = paint;
         }
 
         invalidate();
     }
 
-    @SuppressWarnings("ConstantConditions")
+    // Called only when the plot is rendered into the bitmap
     private void recalculateLines() {
         int maxValue = Integer.MIN_VALUE;
 
@@ -94,15 +141,7 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
             int value = 0;
 
             for (Entity entity: chartData.entities) {
-                if (entity == animatedEntity) {
-                    if (entity.isVisible()) {
-                        value += entity.values[i] * animator.getAnimatedFraction();
-                    }
-                    else {
-                        value += entity.values[i] * (1 - animator.getAnimatedFraction());
-                    }
-                }
-                else if (entity.isVisible()) {
+                if (entity.isVisible()) {
                     value += entity.values[i];
                 }
             }
@@ -114,7 +153,7 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
         float barWidth = (float)(getWidth() - marginHorizontal * 2) / chartData.axis.size();
 
         for (Entity entity: chartData.entities) {
-            paints.get(entity).setStrokeWidth(barWidth);
+            paints[entity.index].setStrokeWidth(barWidth);
         }
 
         for (int i = 0; i < chartData.axis.size(); i++) {
@@ -124,22 +163,12 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
 
             for (int j = 0; j < chartData.entities.size(); j++) {
                 Entity entity = chartData.entities.get(j);
-                if (!entity.isVisible() && entity != animatedEntity) {
+                if (!entity.isVisible()) {
                     continue;
                 }
                 float[] lines = this.lines[j];
 
-                if (entity == animatedEntity) {
-                    if (entity.isVisible()) {
-                        yTo = yFrom - entity.values[i] * scaleY * animator.getAnimatedFraction();
-                    }
-                    else {
-                        yTo = yFrom - entity.values[i] * scaleY * (1 - animator.getAnimatedFraction());
-                    }
-                }
-                else {
-                    yTo = yFrom - entity.values[i] * scaleY;
-                }
+                yTo = yFrom - entity.values[i] * scaleY;
 
                 lines[i * 4] = x + marginHorizontal;
                 lines[i * 4 + 1] = yFrom;
@@ -154,46 +183,16 @@ public class NavigationStackedPlotView extends View implements NavigationPlotVie
     @Override
     public void onEntityChanged(Entity entity) {
         if (!hasDrawn) {
+            bitmap.invalidate();
             invalidate();
             return;
         }
-        if (animator != null && animator.isRunning()) {
-            animator.cancel();
-        }
-
-        animatedEntity = entity;
-
-        animator = ObjectAnimator.ofInt(1, 0)
-                .setDuration(200);
-
-        animator.addUpdateListener(new ValueAnimator.AnimatorUpdateListener() {
-            @Override
-            public void onAnimationUpdate(ValueAnimator animation) {
-                recalculateLines();
-                invalidate();
-            }
-        });
-        animator.addListener(new Animator.AnimatorListener() {
-            @Override
-            public void onAnimationStart(Animator animation) {
+        // the current picture becomes the one to fade out from
+        PlotBitmap previous = previousBitmap;
+        previousBitmap = bitmap;
+        bitmap = previous;
+        bitmap.invalidate();
 
-            }
-
-            @Override
-            public void onAnimationEnd(Animator animation) {
-                animatedEntity = null;
-            }
-
-            @Override
-            public void onAnimationCancel(Animator animation) {
-
-            }
-
-            @Override
-            public void onAnimationRepeat(Animator animation) {
-
-            }
-        });
-        animator.start();
+        tween.start();
     }
 }
@@ -0,0 +1,49 @@
+package io.svechnikov.telegramchart.chart.views.navigation;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// Off-screen copy of a navigation plot. The plot is rendered into it
+// when the data or the size changes and then drawn as is, so moving
+// the selection over the plot doesn't render the series again
+class PlotBitmap {
+
+    private final Canvas canvas = new Canvas();
+    private Bitmap bitmap;
+    private boolean valid;
+
+    // Returns a cleared canvas drawing into the bitmap,
+    // the bitmap is reused while the size stays the same
+    Canvas startRendering(int width, int height) {
+        if (bitmap == null ||
+                bitmap.getWidth() != width ||
+                bitmap.getHeight() != height) {
+            if (bitmap != null) {
+                bitmap.recycle();
+            }
+            bitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            canvas.setBitmap(bitmap);
+        }
+        else {
+            bitmap.eraseColor(Color.TRANSPARENT);
+        }
+        valid = true;
+        return canvas;
+    }
+
+    boolean isValid() {
+        return valid;
+    }
+
+    void invalidate() {
+        valid = false;
+    }
+
+    void draw(Canvas target, Paint paint) {
+        if (valid) {
+            target.drawBitmap(bitmap, 0, 0, paint);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package io.svechnikov.telegramchart.chart.views.verticalaxis;
+
+// Snaps a range of values to the given number of steps of a round size,
+// so the evenly spaced lines of the axis get round labels. Steps follow
+// 1, 1.2, 1.5, 2, 2.5, 3, 4, 5, 6, 8 times a power of ten, neighbour sizes differ
+// by a third at most, so the values fill most of the range. The range is kept
+// while the values fit into it and fill at least the given part of it,
+// so small changes of the values while the chart is moved don't change the scale
+public class NiceRange {
+
+    public static final float DEFAULT_MIN_FILL = 0.6f;
+
+    // tenths of a step, the ones giving a fractional step are skipped
+    private static final int[] MANTISSAS = {10, 12, 15, 20, 25, 30, 40, 50, 60, 80};
+
+    private final int stepsCount;
+    private final boolean startFromZero;
+    private float minFill = DEFAULT_MIN_FILL;
+
+    private boolean hasRange;
+    private int min;
+    private int max;
+
+    public NiceRange(int stepsCount, boolean startFromZero) {
+        // values around zero need at least a step on each side of it,
+        // with a single step no range would do and findStep() wouldn't end
+        if (stepsCount < 2) {
+            throw new IllegalArgumentException("Invalid steps count " + stepsCount);
+        }
+        this.stepsCount = stepsCount;
+        this.startFromZero = startFromZero;
+    }
+
+    // Part of the range the values may shrink to before it is snapped
+    // again, 1 snaps to the best range on every change of the values
+    public void setMinFill(float minFill) {
+        this.minFill = minFill;
+    }
+
+    // Returns true if the range has changed
+    public boolean update(int valuesMin, int valuesMax) {
+        if (startFromZero) {
+            valuesMin = 0;
+        }
+        if (hasRange && valuesMin >= min && valuesMax <= max &&
+                (double)valuesMax - valuesMin >= ((double)max - min) * minFill) {
+            return false;
+        }
+        long step = findStep(valuesMin, valuesMax);
+        long rangeMin = rangeMin(valuesMin, step);
+        int nextMin = (int)Math.max(rangeMin, Integer.MIN_VALUE);
+        int nextMax = (int)Math.min(rangeMin + step * stepsCount, Integer.MAX_VALUE);
+
+        hasRange = true;
+        if (nextMin == min && nextMax == max) {
+            return false;
+        }
+        min = nextMin;
+        max = nextMax;
+        return true;
+    }
+
+    public int getMin() {
+        return min;
+    }
+
+    public int getMax() {
+        return max;
+    }
+
+    // The smallest step whose ticks cover the values
+    private long findStep(int valuesMin, int valuesMax) {
+        for (long power = 1; ; power *= 10) {
+            for (int mantissa: MANTISSAS) {
+                if (mantissa * power % 10 != 0) {
+                    continue;
+                }
+                long step = mantissa * power / 10;
+                if (rangeMin(valuesMin, step) + step * stepsCount >= valuesMax) {
+                    return step;
+                }
+            }
+        }
+    }
+
+    private long rangeMin(int valuesMin, long step) {
+        if (startFromZero) {
+            return 0;
+        }
+        long min = valuesMin / step * step;
+        // rounds towards negative infinity for negative values
+        if (min > valuesMin) {
+            min -= step;
+        }
+        return min;
+    }
+}
@@ -0,0 +1,61 @@
+package io.svechnikov.telegramchart.chart.views.verticalaxis;
+
+// Formats the values of the vertical axes, abbreviating thousands
+// and millions as in "1.5K" and "12M". Labels are written into one buffer
+// and kept in a small cache by value, so the same ticks of repeated ranges
+// are the same String instances and are not formatted again.
+// Labels are requested from the main thread only
+class TickLabels {
+
+    private static final int CACHE_SIZE = 256;
+
+    private final int[] values = new int[CACHE_SIZE];
+    private final String[] labels = new String[CACHE_SIZE];
+    private final char[] buffer = new char[16];
+
+    String get(int value) {
+        int index = (value ^ (value >>> 16)) & (CACHE_SIZE - 1);
+        String label = labels[index];
+
+        if (label == null || values[index] != value) {
+            label = format(value);
+            values[index] = value;
+            labels[index] = label;
+        }
+        return label;
+    }
+
+    private String format(int value) {
+        if (value < 1000) {
+            return String.valueOf(value);
+        }
+        char suffix;
+        long divider;
+        if (value >= 1000000) {
+            suffix = 'M';
+            divider = 1000000;
+        }
+        else {
+            suffix = 'K';
+            divider = 1000;
+        }
+        // one decimal, rounded half up, the zero decimal is dropped
+        long tenths = (value * 10L + divider / 2) / divider;
+        long whole = tenths / 10;
+        int decimal = (int)(tenths % 10);
+
+        int end = buffer.length;
+        int start = end;
+        buffer[--start] = suffix;
+        if (decimal != 0) {
+            buffer[--start] = (char)('0' + decimal);
+            buffer[--start] = '.';
+        }
+        do {
+            buffer[--start] = (char)('0' + whole % 10);
+            whole /= 10;
+        } while (whole > 0);
+
+        return new String(buffer, start, end - start);
+    }
+}
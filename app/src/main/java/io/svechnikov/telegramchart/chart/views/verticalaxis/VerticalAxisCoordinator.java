@@ -1,25 +1,26 @@
 package io.svechnikov.telegramchart.chart.views.verticalaxis;
 
-import android.animation.Animator;
-import android.animation.ObjectAnimator;
-import android.animation.ValueAnimator;
 import android.content.Context;
 import android.content.res.Resources;
 import android.view.View;
 import android.view.ViewTreeObserver;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 import io.svechnikov.telegramchart.R;
 import io.svechnikov.telegramchart.chart.NavigationStateListener;
 import io.svechnikov.telegramchart.chart.data.NavigationState;
+import io.svechnikov.telegramchart.chart.views.AnimationClock;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+import io.svechnikov.telegramchart.chart.views.Tween;
 
 // We cannot have one view with both labels and axis-lines
 // because lines must be below graph and labels - above
 // so we manipulate these 2 views from here
-public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateListener,
-        Animator.AnimatorListener, NavigationStateListener {
+public class VerticalAxisCoordinator implements Tween.Listener,
+        NavigationStateListener {
 
     private static final float MAX_LABEL_BACKGROUND_ALPHA = 0.8f;
 
@@ -30,13 +31,14 @@ public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateList
 
     private VerticalAxisState currentState;
     private VerticalAxisState nextState;
-    private boolean animationCanceled;
     private boolean hasStarted;
 
     private int currentMaxValue;
     private float animatedFraction;
 
-    private ValueAnimator animator;
+    private final Tween tween;
+    private int animationStartValue;
+    private int animationEndValue;
     private boolean animating;
     private int pendingMaxValue = -1;
     private int minValue;
@@ -46,11 +48,16 @@ public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateList
     private final int topPadding;
     private final int lineWidth;
     private final List<VerticalAxisView> views = new ArrayList<>();
+    // scheduler layers of the views
+    private int[] layers = new int[0];
+    private final InvalidationScheduler invalidationScheduler;
 
     private static final float ANIMATION_START_THRESHOLD = 0.1f;
     private static final float ANIMATION_INTERRUPT_THRESHOLD = 0.8f;
 
     public VerticalAxisCoordinator(Context context,
+                                   AnimationClock animationClock,
+                                   InvalidationScheduler invalidationScheduler,
                                    int pointsCount,
                                    boolean startFromZero) {
         Resources r = context.getResources();
@@ -73,21 +80,24 @@ public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateList
         nextState = new VerticalAxisState(pointsCount);
 
         this.startFromZero = startFromZero;
+        this.invalidationScheduler = invalidationScheduler;
+
+        // the views are invalidated from invalidate()
+        tween = new Tween(animationClock, 200, null, this);
     }
 
     @Override
     public void onNavigationStateChanged(NavigationState state) {
-        if (state == NavigationState.IDLE) {
-            invalidate();
-        }
-        else {
-            invalidate();
-        }
+        // the axis depends only on the values, it is redrawn
+        // from invalidate() when they or the animation change
     }
 
-    public void addView(final VerticalAxisView axisView) {
+    public void addView(final VerticalAxisView axisView, int layer) {
         views.add(axisView);
+        layers = Arrays.copyOf(layers, views.size());
+        layers[views.size() - 1] = layer;
         axisView.setViewPoints(viewPoints);
+        axisView.setInvalidationScheduler(invalidationScheduler, layer);
 
         ((View)axisView).getViewTreeObserver().addOnGlobalLayoutListener(
                 new ViewTreeObserver.OnGlobalLayoutListener() {
@@ -149,26 +159,17 @@ public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateList
             viewPoints[i].update(0, 0, null, 0);
         }
 
-        for (VerticalAxisView view: views) {
-            view.invalidate();
+        for (int layer: layers) {
+            invalidationScheduler.invalidate(layer,
+                    InvalidationScheduler.REASON_Y_RANGE);
         }
     }
 
     private void startAnimation() {
-        if (animator != null) {
-            animator.cancel();
-        }
-        animator = ObjectAnimator.ofInt(
-                currentMaxValue, nextState.maxValue);
-        animator.addUpdateListener(this);
-        animator.addListener(this);
-        animator.setDuration(200);
-        animator.start();
-    }
-
-    @Override
-    public void onAnimationStart(Animator animation) {
+        animationStartValue = currentMaxValue;
+        animationEndValue = nextState.maxValue;
         animating = true;
+        tween.start();
     }
 
     private void copyState(VerticalAxisState state1, VerticalAxisState state2) {
@@ -180,32 +181,20 @@ public class VerticalAxisCoordinator implements ValueAnimator.AnimatorUpdateList
     }
 
     @Override
-    public void onAnimationEnd(Animator animation) {
+    public void onTweenEnd(Tween tween) {
         animating = false;
-        if (!animationCanceled) {
-            copyState(nextState, currentState);
-            if (pendingMaxValue != -1) {
-                updateValues(minValue, pendingMaxValue);
-            }
-            invalidate();
+        copyState(nextState, currentState);
+        if (pendingMaxValue != -1) {
+            updateValues(minValue, pendingMaxValue);
         }
-        animationCanceled = false;
-    }
-
-    @Override
-    public void onAnimationCancel(Animator animation) {
-        animationCanceled = true;
-    }
-
-    @Override
-    public void onAnimationRepeat(Animator animation) {
-
+        invalidate();
     }
 
     @Override
-    public void onAnimationUpdate(ValueAnimator animation) {
-        currentMaxValue = (int)animation.getAnimatedValue();
-        animatedFraction = animation.getAnimatedFraction();
+    public void onTweenUpdate(Tween tween) {
+        animatedFraction = tween.getAnimatedFraction();
+        currentMaxValue = (int)(animationStartValue +
+                (animationEndValue - animationStartValue) * animatedFraction);
         invalidate();
     }
 
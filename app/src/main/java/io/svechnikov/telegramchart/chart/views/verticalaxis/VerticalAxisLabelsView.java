@@ -12,6 +12,8 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 import io.svechnikov.telegramchart.R;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+import io.svechnikov.telegramchart.chart.views.LabelAtlas;
 
 public class VerticalAxisLabelsView extends View
         implements VerticalAxisView {
@@ -25,6 +27,9 @@ public class VerticalAxisLabelsView extends View
     private final Paint backgroundPaint = new Paint();
     private final Rect rect = new Rect();
     protected VerticalAxisViewPoint points[];
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
+    private LabelAtlas labelAtlas;
     private VerticalAxisState forcedState;
     private boolean forcedStateActive;
     private boolean labelsBackgroundEnabled;
@@ -64,7 +69,6 @@ public class VerticalAxisLabelsView extends View
         textPaint.setSubpixelText(true);
         textPaint.setAntiAlias(true);
 
-        Rect rect = new Rect();
         textPaint.getTextBounds("1", 0, 1, rect);
         axisTextHeight = rect.height();
 
@@ -81,6 +85,12 @@ public class VerticalAxisLabelsView extends View
         textPaint.setColor(color);
     }
 
+    // Labels are measured and drawn from the atlas when it is set
+    public void setLabelAtlas(LabelAtlas atlas) {
+        labelAtlas = atlas;
+        atlas.addView(this);
+    }
+
     public void setLabelsBackgroundEnabled(boolean labelsBackgroundEnabled) {
         this.labelsBackgroundEnabled = labelsBackgroundEnabled;
     }
@@ -90,10 +100,19 @@ public class VerticalAxisLabelsView extends View
         this.points = points;
     }
 
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         if (points == null) {
             return;
         }
@@ -131,7 +150,18 @@ public class VerticalAxisLabelsView extends View
                 text = point.getText();
             }
 
-            textPaint.getTextBounds(text, 0, text.length(), rect);
+            int textWidth;
+            int textHeight;
+            if (labelAtlas != null) {
+                // the labels are digits, so they are as high as "1"
+                textWidth = labelAtlas.getWidth(text);
+                textHeight = axisTextHeight;
+            }
+            else {
+                textPaint.getTextBounds(text, 0, text.length(), rect);
+                textWidth = rect.width();
+                textHeight = rect.height();
+            }
 
             float y = point.getY();
             textPaint.setAlpha(alpha);
@@ -145,29 +175,33 @@ public class VerticalAxisLabelsView extends View
                 backgroundPaint.setAlpha(labelBackgroundAlpha);
                 if (alignRight) {
                     canvas.drawRect(
-                            getWidth() - rect.width() -
+                            getWidth() - textWidth -
                                     paddingHorizontal - backgroundPadding * 2,
-                            y - rect.height() - textPositionDeltaY -
+                            y - textHeight - textPositionDeltaY -
                                     backgroundPadding,
                             getWidth() - paddingHorizontal,
                             y - textPositionDeltaY + backgroundPadding, backgroundPaint);
                 }
                 else {
                     canvas.drawRect(paddingHorizontal - backgroundPadding,
-                            y - rect.height() - textPositionDeltaY - backgroundPadding,
-                            paddingHorizontal + rect.width() + backgroundPadding,
+                            y - textHeight - textPositionDeltaY - backgroundPadding,
+                            paddingHorizontal + textWidth + backgroundPadding,
                             y - textPositionDeltaY + backgroundPadding, backgroundPaint);
                 }
             }
 
+            float textX;
             if (alignRight) {
-                canvas.drawText(text,
-                        getWidth() - paddingHorizontal - rect.width() - backgroundPadding,
-                        y - textPositionDeltaY, textPaint);
+                textX = getWidth() - paddingHorizontal - textWidth - backgroundPadding;
+            }
+            else {
+                textX = paddingHorizontal;
+            }
+            if (labelAtlas != null) {
+                labelAtlas.draw(canvas, text, textX, y - textPositionDeltaY, textPaint);
             }
             else {
-                canvas.drawText(text,
-                        paddingHorizontal, y - textPositionDeltaY, textPaint);
+                canvas.drawText(text, textX, y - textPositionDeltaY, textPaint);
             }
         }
     }
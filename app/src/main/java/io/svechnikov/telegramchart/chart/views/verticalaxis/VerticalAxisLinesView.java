@@ -11,12 +11,15 @@ import android.view.View;
 
 import androidx.annotation.Nullable;
 import io.svechnikov.telegramchart.R;
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
 
 public class VerticalAxisLinesView extends View
         implements VerticalAxisView {
 
     private final Paint linePaint = new Paint();
     private VerticalAxisViewPoint points[];
+    private InvalidationScheduler invalidationScheduler;
+    private int invalidationLayer;
 
     private final int initialAlpha;
 
@@ -58,10 +61,19 @@ public class VerticalAxisLinesView extends View
         this.points = points;
     }
 
+    @Override
+    public void setInvalidationScheduler(InvalidationScheduler scheduler, int layer) {
+        invalidationScheduler = scheduler;
+        invalidationLayer = layer;
+        scheduler.setLayer(layer, this);
+    }
+
     @Override
     protected void onDraw(Canvas canvas) {
         super.onDraw(canvas);
 
+        invalidationScheduler.onDrawn(invalidationLayer);
+
         if (points == null) {
             return;
         }
@@ -1,11 +1,12 @@
 package io.svechnikov.telegramchart.chart.views.verticalaxis;
 
-import java.util.Locale;
-
 import androidx.annotation.Nullable;
 
 public class VerticalAxisState {
 
+    // shared by all the states, so equal labels are the same instances
+    private static final TickLabels labels = new TickLabels();
+
     public final String[] points;
     public int maxValue;
     public int minValue;
@@ -21,24 +22,8 @@ public class VerticalAxisState {
         int valueDelta = Math.round((float)(maxValue - minValue) / pointsCount);
         for (int i = 0; i < pointsCount; i++) {
             int value = i * valueDelta + minValue;
-            String text;
-
-            // todo review formatting
-            if (value >= 1000000) {
-                float valueK = value / 1000000f;
-                text = (String.format(Locale.US, "%.1f", valueK) + "M")
-                        .replace(".0M", "M");
-            }
-            else if (value >= 1000) {
-                float valueK = value / 1000f;
-                text = (String.format(Locale.US, "%.1f", valueK) + "K")
-                        .replace(".0K", "K");
-            }
-            else {
-                text = String.valueOf(value);
-            }
 
-            points[i] = text;
+            points[i] = labels.get(value);
         }
     }
 
@@ -53,8 +38,11 @@ public class VerticalAxisState {
             return false;
         }
 
+        // labels are mostly the same instances, they are compared
+        // by content only when one has been dropped from the cache
         for (int i = 0; i < points.length; i++) {
-            if (!state.points[i].equals(points[i])) {
+            if (state.points[i] != points[i] &&
+                    !state.points[i].equals(points[i])) {
                 return false;
             }
         }
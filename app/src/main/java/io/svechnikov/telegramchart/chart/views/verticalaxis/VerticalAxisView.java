@@ -1,6 +1,8 @@
 package io.svechnikov.telegramchart.chart.views.verticalaxis;
 
+import io.svechnikov.telegramchart.chart.views.InvalidationScheduler;
+
 public interface VerticalAxisView {
     void setViewPoints(VerticalAxisViewPoint[] state);
-    void invalidate();
+    void setInvalidationScheduler(InvalidationScheduler scheduler, int layer);
 }
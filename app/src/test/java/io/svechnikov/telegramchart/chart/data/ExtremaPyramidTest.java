@@ -0,0 +1,154 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ExtremaPyramidTest {
+
+    // whole and partial last buckets on every level
+    private static final int[] SIZES = {2, 3, 16, 17, 100, 255, 256, 1000};
+
+    @Test
+    public void levelFor_givesBucketsNotWiderThanPointsPerPixel() {
+        ExtremaPyramid pyramid = new ExtremaPyramid(new int[1000]);
+
+        assertEquals(0, pyramid.levelFor(0.5f));
+        assertEquals(0, pyramid.levelFor(1.9f));
+        assertEquals(1, pyramid.levelFor(2));
+        assertEquals(1, pyramid.levelFor(3.9f));
+        assertEquals(2, pyramid.levelFor(4));
+        assertEquals(6, pyramid.levelFor(100));
+        // there are no buckets wider than the series
+        assertEquals(9, pyramid.levelFor(100000));
+    }
+
+    @Test
+    public void argMax_matchesScan() {
+        Random random = new Random(1);
+
+        for (int size: SIZES) {
+            int[] values = randomValues(random, size);
+            ExtremaPyramid pyramid = new ExtremaPyramid(values);
+            int maxLevel = pyramid.levelFor(Integer.MAX_VALUE);
+
+            for (int level = 1; level <= maxLevel; level++) {
+                for (int bucket = 0; bucket <= (size - 1) >> level; bucket++) {
+                    int start = bucket << level;
+                    int end = Math.min(start + (1 << level), size) - 1;
+                    assertEquals("level " + level + " bucket " + bucket,
+                            bucketMax(values, start, end),
+                            values[pyramid.argMax(level, bucket)]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void collect_keepsBucketEndsAndExtremes() {
+        Random random = new Random(2);
+
+        for (int size: SIZES) {
+            int[] values = randomValues(random, size);
+            ExtremaPyramid pyramid = new ExtremaPyramid(values);
+            int maxLevel = pyramid.levelFor(Integer.MAX_VALUE);
+
+            for (int level = 1; level <= maxLevel; level++) {
+                for (int i = 0; i < 200; i++) {
+                    int left = random.nextInt(size);
+                    int right = left + random.nextInt(size - left);
+                    assertCollected(values, pyramid, level, left, right);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebuild_followsChangedValues() {
+        Random random = new Random(3);
+        int[] values = randomValues(random, 300);
+        ExtremaPyramid pyramid = new ExtremaPyramid(values);
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(1000);
+        }
+        pyramid.rebuild();
+
+        for (int level = 1; level <= pyramid.levelFor(Integer.MAX_VALUE); level++) {
+            assertCollected(values, pyramid, level, 0, values.length - 1);
+        }
+    }
+
+    private static int[] randomValues(Random random, int size) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt(2000) - 1000;
+        }
+        return values;
+    }
+
+    private static int bucketMax(int[] values, int start, int end) {
+        int max = Integer.MIN_VALUE;
+        for (int i = start; i <= end; i++) {
+            max = Math.max(max, values[i]);
+        }
+        return max;
+    }
+
+    private static void assertCollected(int[] values,
+                                        ExtremaPyramid pyramid,
+                                        int level,
+                                        int left,
+                                        int right) {
+        int maxCount = pyramid.maxPointsCount(level, left, right);
+        int[] indices = new int[maxCount];
+        int count = pyramid.collect(level, left, right, indices);
+        String range = "level " + level + " [" + left + ", " + right + "]";
+
+        assertTrue(range, count <= maxCount);
+        for (int i = 1; i < count; i++) {
+            assertTrue(range + " ascending", indices[i - 1] < indices[i]);
+        }
+
+        int bucketSize = 1 << level;
+        for (int bucket = left >> level; bucket <= right >> level; bucket++) {
+            int start = bucket * bucketSize;
+            int end = Math.min(start + bucketSize, values.length) - 1;
+
+            int min = Integer.MAX_VALUE;
+            int max = Integer.MIN_VALUE;
+            boolean hasStart = false;
+            boolean hasEnd = false;
+            int collectedMin = Integer.MAX_VALUE;
+            int collectedMax = Integer.MIN_VALUE;
+
+            for (int i = start; i <= end; i++) {
+                min = Math.min(min, values[i]);
+                max = Math.max(max, values[i]);
+            }
+            for (int i = 0; i < count; i++) {
+                int index = indices[i];
+                if (index < start || index > end) {
+                    continue;
+                }
+                hasStart |= index == start;
+                hasEnd |= index == end;
+                collectedMin = Math.min(collectedMin, values[index]);
+                collectedMax = Math.max(collectedMax, values[index]);
+            }
+
+            String bucketName = range + " bucket " + bucket;
+            assertTrue(bucketName + " start", hasStart);
+            assertTrue(bucketName + " end", hasEnd);
+            assertEquals(bucketName + " min", min, collectedMin);
+            assertEquals(bucketName + " max", max, collectedMax);
+        }
+
+        // nothing is taken from outside the buckets of the range
+        assertTrue(range, indices[0] >= (left >> level) * bucketSize);
+        assertTrue(range, indices[count - 1] <= Math.min(
+                ((right >> level) + 1) * bucketSize, values.length) - 1);
+    }
+}
@@ -0,0 +1,108 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class RangeIndexTest {
+
+    // sizes around the block size of 32 and a few whole blocks
+    private static final int[] SIZES = {1, 2, 31, 32, 33, 63, 64, 65, 97, 130, 1000};
+
+    // small enough to check every range
+    private static final int[] SMALL_SIZES = {1, 2, 31, 32, 33, 63, 64, 65, 97, 130};
+
+    @Test
+    public void allRanges_matchScan() {
+        Random random = new Random(1);
+
+        for (int size: SMALL_SIZES) {
+            int[] values = randomValues(random, size);
+            RangeIndex index = new RangeIndex(values);
+
+            for (int left = 0; left < size; left++) {
+                for (int right = left; right < size; right++) {
+                    assertRange(values, index, left, right);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void randomRanges_matchScan() {
+        Random random = new Random(2);
+
+        for (int size: SIZES) {
+            int[] values = randomValues(random, size);
+            RangeIndex index = new RangeIndex(values);
+
+            for (int i = 0; i < 2000; i++) {
+                int left = random.nextInt(size);
+                int right = left + random.nextInt(size - left);
+                assertRange(values, index, left, right);
+            }
+        }
+    }
+
+    @Test
+    public void blockBoundaries_matchScan() {
+        Random random = new Random(3);
+        int size = 1000;
+        int[] values = randomValues(random, size);
+        RangeIndex index = new RangeIndex(values);
+
+        for (int left = 0; left < size; left += 32) {
+            for (int right = left; right < size; right += 32) {
+                for (int dl = -1; dl <= 1; dl++) {
+                    for (int dr = -1; dr <= 1; dr++) {
+                        int l = left + dl;
+                        int r = right + dr;
+                        if (l >= 0 && r < size && l <= r) {
+                            assertRange(values, index, l, r);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void rebuild_followsChangedValues() {
+        Random random = new Random(4);
+        int[] values = randomValues(random, 300);
+        RangeIndex index = new RangeIndex(values);
+
+        for (int i = 0; i < values.length; i++) {
+            values[i] = random.nextInt(2000) - 1000;
+        }
+        index.rebuild();
+
+        for (int i = 0; i < 1000; i++) {
+            int left = random.nextInt(values.length);
+            int right = left + random.nextInt(values.length - left);
+            assertRange(values, index, left, right);
+        }
+    }
+
+    private static int[] randomValues(Random random, int size) {
+        int[] values = new int[size];
+        for (int i = 0; i < size; i++) {
+            values[i] = random.nextInt() / 2;
+        }
+        return values;
+    }
+
+    private static void assertRange(int[] values, RangeIndex index, int left, int right) {
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = left; i <= right; i++) {
+            min = Math.min(min, values[i]);
+            max = Math.max(max, values[i]);
+        }
+        String range = "[" + left + ", " + right + "] of " + values.length;
+        assertEquals("min " + range, min, index.min(left, right));
+        assertEquals("max " + range, max, index.max(left, right));
+    }
+}
@@ -0,0 +1,98 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class StackedTotalsTest {
+
+    private static final int POINTS_COUNT = 200;
+
+    @Test
+    public void totals_sumVisibleEntities() {
+        Random random = new Random(1);
+        List<Entity> entities = createEntities(random, 4);
+        entities.get(2).setVisible(false);
+
+        StackedTotals totals = new StackedTotals(entities, POINTS_COUNT);
+
+        assertTotals(entities, totals, random);
+    }
+
+    @Test
+    public void sync_followsVisibilityChanges() {
+        Random random = new Random(2);
+        List<Entity> entities = createEntities(random, 5);
+        StackedTotals totals = new StackedTotals(entities, POINTS_COUNT);
+
+        for (int i = 0; i < 50; i++) {
+            Entity entity = entities.get(random.nextInt(entities.size()));
+            entity.setVisible(!entity.isVisible());
+            totals.sync();
+
+            assertTotals(entities, totals, random);
+        }
+    }
+
+    @Test
+    public void sync_withNothingVisible_givesZeros() {
+        Random random = new Random(3);
+        List<Entity> entities = createEntities(random, 3);
+        StackedTotals totals = new StackedTotals(entities, POINTS_COUNT);
+
+        for (Entity entity: entities) {
+            entity.setVisible(false);
+        }
+        totals.sync();
+
+        for (int i = 0; i < POINTS_COUNT; i++) {
+            assertEquals(0, totals.total(i));
+        }
+        assertEquals(0, totals.max(0, POINTS_COUNT - 1));
+    }
+
+    private static List<Entity> createEntities(Random random, int count) {
+        List<Entity> entities = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            int[] values = new int[POINTS_COUNT];
+            for (int j = 0; j < POINTS_COUNT; j++) {
+                values[j] = random.nextInt(100000);
+            }
+            entities.add(new Entity(i, 0, "y" + i, values));
+        }
+        return entities;
+    }
+
+    private static void assertTotals(List<Entity> entities,
+                                     StackedTotals totals,
+                                     Random random) {
+        int[] expected = new int[POINTS_COUNT];
+        for (Entity entity: entities) {
+            if (entity.isVisible()) {
+                for (int i = 0; i < POINTS_COUNT; i++) {
+                    expected[i] += entity.values[i];
+                }
+            }
+        }
+
+        for (int i = 0; i < POINTS_COUNT; i++) {
+            assertEquals("total " + i, expected[i], totals.total(i));
+        }
+
+        for (int i = 0; i < 200; i++) {
+            int left = random.nextInt(POINTS_COUNT);
+            int right = left + random.nextInt(POINTS_COUNT - left);
+
+            int max = Integer.MIN_VALUE;
+            for (int j = left; j <= right; j++) {
+                max = Math.max(max, expected[j]);
+            }
+            assertEquals("max [" + left + ", " + right + "]",
+                    max, totals.max(left, right));
+        }
+    }
+}
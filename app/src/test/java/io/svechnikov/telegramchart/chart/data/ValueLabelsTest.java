@@ -0,0 +1,35 @@
+package io.svechnikov.telegramchart.chart.data;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class ValueLabelsTest {
+
+    @Test
+    public void get_matchesStringValueOf() {
+        ValueLabels labels = new ValueLabels();
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt();
+            assertEquals(String.valueOf(value), labels.get(value));
+        }
+        assertEquals("0", labels.get(0));
+        assertEquals("-1", labels.get(-1));
+    }
+
+    @Test
+    public void get_returnsCachedInstances() {
+        ValueLabels labels = new ValueLabels();
+
+        String label = labels.get(1500);
+        assertSame(label, labels.get(1500));
+
+        // values of the same cache slot replace each other
+        assertEquals("1756", labels.get(1500 + 256));
+        assertEquals("1500", labels.get(1500));
+    }
+}
@@ -0,0 +1,144 @@
+package io.svechnikov.telegramchart.chart.views.verticalaxis;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class NiceRangeTest {
+
+    private static final int STEPS_COUNT = 6;
+
+    @Test
+    public void update_coversValuesWithRoundSteps() {
+        Random random = new Random(1);
+
+        for (int i = 0; i < 100000; i++) {
+            boolean startFromZero = random.nextBoolean();
+            int valuesMin = startFromZero ? 0 : random.nextInt(2000000) - 1000000;
+            int valuesMax = valuesMin + random.nextInt(10000000);
+
+            NiceRange range = new NiceRange(STEPS_COUNT, startFromZero);
+            range.update(valuesMin, valuesMax);
+
+            String values = valuesMin + ".." + valuesMax;
+            assertTrue(values, range.getMin() <= valuesMin);
+            assertTrue(values, range.getMax() >= valuesMax);
+            assertTrue(values, range.getMax() > range.getMin());
+
+            int span = range.getMax() - range.getMin();
+            assertEquals(values, 0, span % STEPS_COUNT);
+            int step = span / STEPS_COUNT;
+            assertTrue(values + " step " + step, isRound(step));
+            assertEquals(values, 0, range.getMin() % step);
+        }
+    }
+
+    @Test
+    public void update_fillsMostOfTheRange() {
+        Random random = new Random(2);
+
+        for (int i = 0; i < 100000; i++) {
+            // below a hundred the steps can't be a third apart
+            int valuesMax = 100 + random.nextInt(100000000);
+
+            NiceRange range = new NiceRange(STEPS_COUNT, true);
+            range.update(0, valuesMax);
+
+            float fill = (float)valuesMax / range.getMax();
+            assertTrue(valuesMax + " fills " + fill, fill >= 0.75f);
+        }
+    }
+
+    @Test
+    public void update_keepsRangeWhileValuesFillIt() {
+        NiceRange range = new NiceRange(STEPS_COUNT, true);
+
+        assertTrue(range.update(0, 1000));
+        assertEquals(0, range.getMin());
+        assertEquals(1200, range.getMax());
+
+        // 60% of the range and more keeps it
+        assertFalse(range.update(0, 900));
+        assertFalse(range.update(0, 730));
+        assertEquals(1200, range.getMax());
+
+        // less than that snaps it to the values again
+        assertTrue(range.update(0, 700));
+        assertEquals(720, range.getMax());
+
+        // values out of the range snap it at once
+        assertTrue(range.update(0, 730));
+        assertEquals(900, range.getMax());
+    }
+
+    @Test
+    public void update_withFullFill_snapsOnEveryChange() {
+        NiceRange range = new NiceRange(STEPS_COUNT, true);
+        range.setMinFill(1);
+
+        range.update(0, 1000);
+        assertEquals(1200, range.getMax());
+
+        range.update(0, 900);
+        assertEquals(900, range.getMax());
+    }
+
+    @Test
+    public void update_withEqualValues_givesRange() {
+        NiceRange range = new NiceRange(STEPS_COUNT, false);
+        range.update(50, 50);
+
+        assertTrue(range.getMin() <= 50);
+        assertTrue(range.getMax() > range.getMin());
+        assertTrue(range.getMax() >= 50);
+
+        range = new NiceRange(STEPS_COUNT, true);
+        range.update(0, 0);
+
+        assertEquals(0, range.getMin());
+        assertTrue(range.getMax() > 0);
+    }
+
+    @Test
+    public void update_aroundZero_coversBothSides() {
+        NiceRange range = new NiceRange(2, false);
+        range.update(-1, 1);
+
+        assertTrue(range.getMin() <= -1);
+        assertTrue(range.getMax() >= 1);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_withoutSteps_fails() {
+        new NiceRange(-1, true);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void create_withSingleStep_fails() {
+        new NiceRange(1, false);
+    }
+
+    // 1, 1.2, 1.5, 2, 2.5, 3, 4, 5, 6 or 8 times a power of ten
+    private static boolean isRound(int step) {
+        int power = 1;
+        while (step / power >= 100) {
+            power *= 10;
+        }
+        if (step % power != 0) {
+            return false;
+        }
+        int mantissa = step / power;
+        if (mantissa < 10) {
+            mantissa *= 10;
+        }
+        switch (mantissa) {
+            case 10: case 12: case 15: case 20: case 25:
+            case 30: case 40: case 50: case 60: case 80:
+                return true;
+            default:
+                return false;
+        }
+    }
+}
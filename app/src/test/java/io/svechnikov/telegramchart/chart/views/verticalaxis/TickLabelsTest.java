@@ -0,0 +1,108 @@
+package io.svechnikov.telegramchart.chart.views.verticalaxis;
+
+import org.junit.Test;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.Locale;
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+public class TickLabelsTest {
+
+    @Test
+    public void format_matchesStringFormat() {
+        TickLabels labels = new TickLabels();
+        Random random = new Random(1);
+
+        for (int value = 0; value < 200000; value++) {
+            assertMatchesStringFormat(labels, value);
+        }
+        // above 2^24 floats can't keep the values exactly
+        for (int i = 0; i < 100000; i++) {
+            assertMatchesStringFormat(labels, random.nextInt(1 << 24));
+        }
+    }
+
+    @Test
+    public void format_roundsHalfUp() {
+        TickLabels labels = new TickLabels();
+        Random random = new Random(2);
+
+        for (int value = 0; value < 200000; value++) {
+            assertEquals(halfUp(value), labels.get(value));
+        }
+        for (int i = 0; i < 100000; i++) {
+            int value = random.nextInt(Integer.MAX_VALUE);
+            assertEquals(halfUp(value), labels.get(value));
+        }
+        assertEquals("1.3K", labels.get(1250));
+        assertEquals("1.4K", labels.get(1350));
+        assertEquals("1000K", labels.get(999950));
+        assertEquals("2147.5M", labels.get(Integer.MAX_VALUE));
+    }
+
+    @Test
+    public void get_returnsCachedInstances() {
+        TickLabels labels = new TickLabels();
+
+        String label = labels.get(1500);
+        assertSame(label, labels.get(1500));
+
+        // values of the same cache slot replace each other
+        assertEquals("1.5K", label);
+        assertEquals("1.8K", labels.get(1500 + 256));
+        assertEquals("1.5K", labels.get(1500));
+    }
+
+    private static void assertMatchesStringFormat(TickLabels labels, int value) {
+        if (isTie(value)) {
+            return;
+        }
+        assertEquals("value " + value, stringFormat(value), labels.get(value));
+    }
+
+    // The values whose next decimal is exactly 5, String.format rounds
+    // the float nearest to them, which may be either side of the tie
+    private static boolean isTie(int value) {
+        if (value >= 1000000) {
+            return value % 100000 == 50000;
+        }
+        if (value >= 1000) {
+            return value % 100 == 50;
+        }
+        return false;
+    }
+
+    // The formatting the axis used before TickLabels
+    private static String stringFormat(int value) {
+        if (value >= 1000000) {
+            float valueK = value / 1000000f;
+            return (String.format(Locale.US, "%.1f", valueK) + "M")
+                    .replace(".0M", "M");
+        }
+        else if (value >= 1000) {
+            float valueK = value / 1000f;
+            return (String.format(Locale.US, "%.1f", valueK) + "K")
+                    .replace(".0K", "K");
+        }
+        return String.valueOf(value);
+    }
+
+    private static String halfUp(int value) {
+        if (value < 1000) {
+            return String.valueOf(value);
+        }
+        String suffix = value >= 1000000 ? "M" : "K";
+        int scale = value >= 1000000 ? 6 : 3;
+        String text = BigDecimal.valueOf(value)
+                .movePointLeft(scale)
+                .setScale(1, RoundingMode.HALF_UP)
+                .toPlainString();
+        if (text.endsWith(".0")) {
+            text = text.substring(0, text.length() - 2);
+        }
+        return text + suffix;
+    }
+}